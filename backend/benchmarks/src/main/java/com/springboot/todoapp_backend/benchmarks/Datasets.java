@@ -0,0 +1,51 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.springboot.todoapp_backend.metrics.ToDoMetrics;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+//Reproducible synthetic datasets, the same size and seed always give the same items
+final class Datasets {
+
+    private static final String[] VERBS = {"Write", "Review", "Call", "Buy", "Fix", "Plan", "Read", "Send"};
+    private static final String[] NOUNS = {"report", "invoice", "groceries", "tests", "meeting", "email", "budget", "docs"};
+
+    static final long SEED = 42;
+
+    private Datasets() {
+    }
+
+    //Service over a store holding the given number of items, about a third of them done
+    static ToDoService service(ToDoStore store, int size) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDate today = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < size; i++) {
+            boolean done = random.nextInt(3) == 0;
+            LocalDateTime created = now.minusMinutes(random.nextInt(60 * 24 * 30));
+            store.save(ToDo.builder()
+                    .text(text(random, i))
+                    .priority(ToDo.Priority.values()[random.nextInt(3)])
+                    .dueDate(random.nextInt(4) == 0 ? null : today.plusDays(random.nextInt(365)))
+                    .isDone(done)
+                    .creationDate(created)
+                    .doneDate(done ? created.plusMinutes(random.nextInt(60 * 24 * 7)) : null)
+                    .build());
+        }
+        // Built after the store is filled so the completion statistics are rebuilt from it, as on startup
+        return new ToDoService(store, new NoOpToDoPersistence(), Validation.buildDefaultValidatorFactory().getValidator(),
+                new ToDoMetrics(new SimpleMeterRegistry()));
+    }
+
+    static String text(SplittableRandom random, int i) {
+        return VERBS[random.nextInt(VERBS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + i;
+    }
+}
@@ -0,0 +1,139 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.springboot.todoapp_backend.TodoappBackendApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+//Whole server throughput with 10k clients each keeping a connection open, served either by the Tomcat
+//platform thread pool or by a virtual thread per request. Adding an item waits for the change log fsync,
+//which is the blocking work virtual threads are meant for. Needs Java 21 and about 2 file descriptors per
+//connection, so raise the limit first, e.g. "ulimit -n 65536". The requests counter is the rate that matters,
+//the primary score counts rounds of one request per connection
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx8g"})
+public class ServerThreadingBenchmark {
+
+    @Param({"10000"})
+    public int connections;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private Path directory;
+    private ExecutorService clientExecutor;
+    private HttpClient client;
+    private HttpRequest listRequest;
+    private HttpRequest addRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21, this is Java " + Runtime.version());
+        }
+        directory = Files.createTempDirectory("todo-benchmark");
+        // Command line arguments, so they win over the application.properties packaged with the backend
+        context = new SpringApplicationBuilder(TodoappBackendApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--server.tomcat.max-connections=" + (connections * 2),
+                "--server.tomcat.accept-count=" + connections,
+                "--server.tomcat.keep-alive-timeout=-1",
+                "--server.tomcat.max-keep-alive-requests=-1",
+                "--todoapp.persistence.dir=" + directory,
+                "--todoapp.persistence.sync-writes=true",
+                "--spring.main.banner-mode=off");
+        int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+        clientExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(clientExecutor)
+                .build();
+        URI base = URI.create("http://localhost:" + port + "/todos");
+        listRequest = HttpRequest.newBuilder(URI.create(base + "?text=report&sortBy=dueDate")).GET().build();
+        addRequest = HttpRequest.newBuilder(base)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"text\":\"Write report\",\"priority\":\"LOW\"}"))
+                .build();
+
+        // Fills the store and opens the connections before the first measurement
+        send(addRequest);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        clientExecutor.shutdownNow();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public int listItems(Requests requests) {
+        return requests.add(send(listRequest));
+    }
+
+    @Benchmark
+    public int addItem(Requests requests) {
+        return requests.add(send(addRequest));
+    }
+
+    //Reported by JMH as a rate next to the score
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+
+        int add(int count) {
+            requests += count;
+            return count;
+        }
+    }
+
+    //Sends the request once over every connection at the same time, returns how many succeeded
+    private int send(HttpRequest request) {
+        @SuppressWarnings("unchecked")
+        CompletableFuture<HttpResponse<Void>>[] responses = new CompletableFuture[connections];
+        for (int i = 0; i < connections; i++) {
+            responses[i] = client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+        }
+        CompletableFuture.allOf(responses).join();
+        int succeeded = 0;
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            if (response.join().statusCode() < 300) {
+                succeeded++;
+            }
+        }
+        if (succeeded < connections) {
+            throw new IllegalStateException((connections - succeeded) + " requests failed");
+        }
+        return succeeded;
+    }
+}
@@ -0,0 +1,80 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.ProtobufCodec;
+import com.springboot.todoapp_backend.Utilities.WireFormat;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//Encoding and decoding a list page in every wire format. The size of the encoded page is reported next to the score
+//and the allocation rates of the GC profiler
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ToDoEncodingBenchmark {
+
+    @Param({"JSON", "SMILE", "CBOR", "PROTOBUF"})
+    public WireFormat format;
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private ApiResponse<List<ToDo>> page;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // The settings Spring Boot gives the JSON mapper of the app
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper = format.mapper(json);
+        ToDoStore store = new ToDoStore(ToDoStore.Layout.OBJECTS, 1);
+        Datasets.service(store, pageSize);
+        page = ApiResponse.successWithTotalItems("List retrieved successfully", store.findAll(), pageSize, null);
+        encoded = encodePage();
+    }
+
+    @Benchmark
+    public byte[] encode(PageSize size) throws IOException {
+        size.bytes = encoded.length;
+        return encodePage();
+    }
+
+    @Benchmark
+    public Object decode(PageSize size) throws IOException {
+        size.bytes = encoded.length;
+        return format == WireFormat.PROTOBUF ? ProtobufCodec.decodeResponse(encoded) : mapper.readValue(encoded, Page.class);
+    }
+
+    private byte[] encodePage() throws IOException {
+        return format == WireFormat.PROTOBUF ? ProtobufCodec.encode(page) : mapper.writeValueAsBytes(page);
+    }
+
+    //Reported by JMH as is next to the score, the size of the page in the format
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PageSize {
+        public long bytes;
+    }
+
+    //The list response as a client reads it, ApiResponse itself has no constructor for Jackson
+    public static class Page {
+        public int status;
+        public String message;
+        public List<ToDo> data;
+        public Integer totalItems;
+        public String nextCursor;
+    }
+}
@@ -0,0 +1,73 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.Gzip;
+import com.springboot.todoapp_backend.controller.ToDoFragmentCache;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+//Putting a JSON list page together after a write: every item through Jackson against splicing the cached item
+//fragments, and gzipping the result with the pooled deflaters against a new GZIPOutputStream per body
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ToDoPageAssemblyBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private ToDoFragmentCache fragments;
+    private List<ToDo> items;
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ToDoStore store = new ToDoStore(ToDoStore.Layout.OBJECTS, 1);
+        Datasets.service(store, pageSize);
+        items = store.findAll();
+        fragments = new ToDoFragmentCache(mapper);
+        json = fragments();
+    }
+
+    @Benchmark
+    public byte[] jackson() throws IOException {
+        return mapper.writeValueAsBytes(
+                ApiResponse.successWithTotalItems("List retrieved successfully", items, items.size(), null));
+    }
+
+    @Benchmark
+    public byte[] fragments() throws IOException {
+        return mapper.writeValueAsBytes(
+                ApiResponse.successWithTotalItems("List retrieved successfully", fragments.items(items), items.size(), null));
+    }
+
+    @Benchmark
+    public byte[] gzipPooled() {
+        return Gzip.compress(json);
+    }
+
+    @Benchmark
+    public byte[] gzipStream() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+        return out.toByteArray();
+    }
+}
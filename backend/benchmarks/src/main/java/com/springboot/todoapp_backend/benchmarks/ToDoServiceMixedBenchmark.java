@@ -0,0 +1,68 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//Readers and writers hitting the same service at once: a read mostly mix and a write heavy one
+@State(Scope.Group)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx16g"})
+public class ToDoServiceMixedBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    private ToDoService service;
+    private final NewToDoDTO newItem = new NewToDoDTO("Benchmark task", ToDo.Priority.HIGH, null);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = Datasets.service(new ToDoStore(), size);
+    }
+
+    private List<ToDo> read() {
+        return service.getFilteredList("report", null, false, 1, "dueDate", null);
+    }
+
+    private Optional<ToDo> write() {
+        return service.deleteItem(service.addItem(newItem).getId());
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(7)
+    public List<ToDo> readMostlyReader() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(1)
+    public Optional<ToDo> readMostlyWriter() {
+        return write();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(4)
+    public List<ToDo> writeHeavyReader() {
+        return read();
+    }
+
+    @Benchmark
+    @Group("writeHeavy")
+    @GroupThreads(4)
+    public Optional<ToDo> writeHeavyWriter() {
+        return write();
+    }
+}
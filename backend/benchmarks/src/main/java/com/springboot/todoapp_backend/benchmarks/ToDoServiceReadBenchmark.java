@@ -0,0 +1,122 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+//Single threaded read paths over datasets of 1k to 10M items, for every filter and sort combination and both store layouts
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx16g"})
+public class ToDoServiceReadBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"OBJECTS", "COLUMNAR"})
+    public ToDoStore.Layout layout;
+
+    @Param({"1", "8"})
+    public int shards;
+
+    private ToDoService service;
+    private String[] ids;
+    private int nextId = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ToDoStore store = new ToDoStore(layout, shards);
+        service = Datasets.service(store, size);
+        // A power of two, so the next id is picked with a mask
+        ids = new String[Integer.highestOneBit(Math.min(size, 1 << 16))];
+        SplittableRandom random = new SplittableRandom(Datasets.SEED);
+        List<ToDo> items = store.findAll();
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(random.nextInt(items.size())).getId();
+        }
+    }
+
+    @Benchmark
+    public Optional<ToDo> getItem() {
+        nextId = (nextId + 1) & (ids.length - 1);
+        return service.getItem(ids[nextId]);
+    }
+
+    @Benchmark
+    public List<ToDo> getFilteredList(Filter filter, Query query) {
+        return service.getFilteredList(filter.mix.text, filter.mix.priority, filter.mix.isDone, query.page,
+                query.sort.sortBy, query.sort.order);
+    }
+
+    @Benchmark
+    public Integer getTotalItems(Filter filter) {
+        return service.getTotalItems(filter.mix.text, filter.mix.priority, filter.mix.isDone, null);
+    }
+
+    @Benchmark
+    public Map<String, String> getCompletionStats() {
+        return service.getCompletionStats();
+    }
+
+    //Only the benchmarks taking these states are repeated for their parameters
+    @State(Scope.Benchmark)
+    public static class Filter {
+
+        @Param({"NONE", "PRIORITY", "DONE", "TEXT", "PRIORITY_AND_TEXT"})
+        public FilterMix mix;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Query {
+
+        @Param({"DEFAULT", "DUE_DATE", "DUE_DATE_ASC", "PRIORITY_DUE_DATE", "CREATION_DATE"})
+        public SortMode sort;
+
+        @Param({"1", "50"})
+        public int page;
+    }
+
+    public enum FilterMix {
+        NONE(null, null, null),
+        PRIORITY(null, ToDo.Priority.HIGH, null),
+        DONE(null, null, true),
+        TEXT("report", null, null),
+        PRIORITY_AND_TEXT("review", ToDo.Priority.MEDIUM, false);
+
+        final String text;
+        final ToDo.Priority priority;
+        final Boolean isDone;
+
+        FilterMix(String text, ToDo.Priority priority, Boolean isDone) {
+            this.text = text;
+            this.priority = priority;
+            this.isDone = isDone;
+        }
+    }
+
+    public enum SortMode {
+        DEFAULT(null, null),
+        DUE_DATE("dueDate", null),
+        DUE_DATE_ASC("dueDate", "asc"),
+        PRIORITY_DUE_DATE("priority,dueDate", null),
+        CREATION_DATE("creationDate:asc", null);
+
+        final String sortBy;
+        final String order;
+
+        SortMode(String sortBy, String order) {
+            this.sortBy = sortBy;
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.springboot.todoapp_backend.benchmarks;
+
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.model.ToDoIds;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+//Single threaded write paths, every benchmark leaves the dataset at its original size
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx16g"})
+public class ToDoServiceWriteBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"RANDOM_UUID", "UUID_V7", "SNOWFLAKE"})
+    public ToDoIds.Strategy ids;
+
+    private ToDoService service;
+    private String existingId;
+    private final NewToDoDTO newItem = new NewToDoDTO("Benchmark task", ToDo.Priority.MEDIUM, null);
+    private final UpdateToDoDTO update = new UpdateToDoDTO("Benchmark task updated", ToDo.Priority.LOW, null);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ToDoIds.use(ids, 0);
+        ToDoStore store = new ToDoStore();
+        service = Datasets.service(store, size);
+        existingId = service.addItem(newItem).getId();
+    }
+
+    @Benchmark
+    public Optional<ToDo> addAndDeleteItem() {
+        return service.deleteItem(service.addItem(newItem).getId());
+    }
+
+    @Benchmark
+    public Optional<ToDo> updateItem() {
+        return service.updateItem(existingId, update);
+    }
+
+    @Benchmark
+    public Optional<ToDo> markAsDoneAndUndone() {
+        service.markAsDone(existingId);
+        return service.markAsUndone(existingId);
+    }
+}
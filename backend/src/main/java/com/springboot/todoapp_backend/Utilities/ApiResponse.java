@@ -1,5 +1,6 @@
 package com.springboot.todoapp_backend.Utilities;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import org.springframework.http.HttpStatus;
@@ -12,21 +13,27 @@ public class ApiResponse<T> {
     private String message;
     private T data;
     private Integer totalItems;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextCursor;
 
     public static <T> ApiResponse<T> success(String message, T data){
-        return new ApiResponse<>(HttpStatus.OK.value(), message, data, null);
+        return new ApiResponse<>(HttpStatus.OK.value(), message, data, null, null);
     }
 
     public static <T> ApiResponse<T> successWithTotalItems(String message, T data, int totalItems){
-        return new ApiResponse<>(HttpStatus.OK.value(), message, data, totalItems);
+        return new ApiResponse<>(HttpStatus.OK.value(), message, data, totalItems, null);
+    }
+
+    public static <T> ApiResponse<T> successWithTotalItems(String message, T data, int totalItems, String nextCursor){
+        return new ApiResponse<>(HttpStatus.OK.value(), message, data, totalItems, nextCursor);
     }
 
     public static <T> ApiResponse<T> error(String message, HttpStatus status){
-        return new ApiResponse<>(status.value(), message, null, null);
+        return new ApiResponse<>(status.value(), message, null, null, null);
     }
 
     public static <T> ApiResponse<T> error(String message){
-        return new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), message, null, null);
+        return new ApiResponse<>(HttpStatus.BAD_REQUEST.value(), message, null, null, null);
     }
 
 }
@@ -2,4 +2,6 @@ package com.springboot.todoapp_backend.Utilities;
 
 public class Constants {
     public static final int PAGE_SIZE = 10;
+    public static final int MAX_BATCH_SIZE = 10000;
+    public static final int MAX_DUE_DATE_DAYS = 366;
 }
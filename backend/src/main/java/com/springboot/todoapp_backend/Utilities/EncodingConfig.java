@@ -0,0 +1,79 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+//Binary encodings picked by the Accept header next to JSON, with the same Jackson settings as the JSON responses.
+//Spring MVC takes the converter beans, WebFlux the codec customizer. Protobuf is added last by WebConfig
+@Configuration
+public class EncodingConfig {
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(WireFormat.SMILE.mapper(objectMapper));
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(WireFormat.CBOR.mapper(objectMapper));
+    }
+
+    //Nested so the servlet app, which has no Reactor on its classpath, never loads the codecs
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class ReactiveCodecs {
+
+        @Bean
+        public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper) {
+            ObjectMapper smile = WireFormat.SMILE.mapper(objectMapper);
+            ObjectMapper cbor = WireFormat.CBOR.mapper(objectMapper);
+            // The media types are given explicitly, the codecs default to the JSON ones without them
+            return configurer -> {
+                configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, WireFormat.SMILE.mediaType()));
+                configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, WireFormat.SMILE.mediaType()));
+                // Custom encoders come before the default ones, JSON goes first so it stays the encoding of bodies
+                // that have no content type yet, like error answers and requests without Accept
+                configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+                configurer.customCodecs().register(new SingleValueCborEncoder(cbor));
+                configurer.customCodecs().register(new Jackson2CborDecoder(cbor, WireFormat.CBOR.mediaType()));
+            };
+        }
+
+        //Spring's CBOR encoder only encodes values one at a time and rejects the publisher WebFlux writes bodies with,
+        //response bodies are single values so they are taken from the Mono
+        static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+            SingleValueCborEncoder(ObjectMapper cbor) {
+                super(cbor, WireFormat.CBOR.mediaType());
+            }
+
+            @Override
+            public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+                                           MimeType mimeType, Map<String, Object> hints) {
+                if (inputStream instanceof Mono<?> value) {
+                    return value.map(item -> encodeValue(item, bufferFactory, elementType, mimeType, hints)).flux();
+                }
+                return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+            }
+        }
+    }
+}
@@ -8,6 +8,8 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebInputException;
 
 import java.time.format.DateTimeParseException;
 import java.util.Arrays;
@@ -31,6 +33,25 @@ public class GlobalExceptionHandler {
 
     }
 
+    //Handler for max string size 120 when running on WebFlux
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiResponse<Object>> handleWebExchangeBindException(WebExchangeBindException ex) {
+        String message = ex.getFieldErrors().stream()
+                .map(FieldError::getDefaultMessage)
+                .findFirst()
+                .orElse("Validation error");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(message, HttpStatus.BAD_REQUEST));
+    }
+
+    //Handler for unreadable bodies and parameters when running on WebFlux
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServerWebInputException(ServerWebInputException ex) {
+        String message = ex.getReason() != null ? ex.getReason() : "Invalid request";
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(message, HttpStatus.BAD_REQUEST));
+    }
+
     //Handler for invalid enum value
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiResponse<Object>> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
@@ -0,0 +1,118 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+//Gzip encoding of response bodies. Deflaters and their output buffers are pooled instead of kept per thread, so
+//they are also reused when every request runs on a virtual thread of its own
+public final class Gzip {
+
+    // Magic number, deflate, no flags, no modification time, no extra flags, unknown OS
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final int TRAILER_LENGTH = 8;
+
+    private static final int INITIAL_BUFFER = 8192;
+
+    // Buffers grown past this by a large body are not kept in the pool
+    private static final int MAX_POOLED_BUFFER = 1 << 20;
+
+    private static final BlockingQueue<Compressor> POOL =
+            new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+    private Gzip() {
+    }
+
+    public static byte[] compress(byte[] data) {
+        Compressor compressor = POOL.poll();
+        if (compressor == null) {
+            compressor = new Compressor();
+        }
+        try {
+            return compressor.compress(data);
+        } finally {
+            if (!POOL.offer(compressor)) {
+                compressor.deflater.end();
+            }
+        }
+    }
+
+    //Whether an Accept-Encoding header allows gzip, by name or through *
+    public static boolean accepted(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzip = -1;
+        double any = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            int parameters = coding.indexOf(';');
+            String name = (parameters < 0 ? coding : coding.substring(0, parameters)).trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                gzip = quality(coding, parameters);
+            } else if (name.equals("*")) {
+                any = quality(coding, parameters);
+            }
+        }
+        return gzip >= 0 ? gzip > 0 : any > 0;
+    }
+
+    //The q parameter of a coding, 1 when there is none and 0 when it is malformed
+    private static double quality(String coding, int parameters) {
+        if (parameters < 0) {
+            return 1;
+        }
+        for (String parameter : coding.substring(parameters + 1).split(";")) {
+            String[] nameAndValue = parameter.split("=", 2);
+            if (nameAndValue.length == 2 && nameAndValue[0].trim().equalsIgnoreCase("q")) {
+                try {
+                    return Double.parseDouble(nameAndValue[1].trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static final class Compressor {
+
+        private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        private final CRC32 crc = new CRC32();
+        private byte[] buffer = new byte[INITIAL_BUFFER];
+
+        byte[] compress(byte[] data) {
+            deflater.reset();
+            deflater.setInput(data);
+            deflater.finish();
+            crc.reset();
+            crc.update(data);
+
+            System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+            int length = HEADER.length;
+            while (!deflater.finished()) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                }
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+
+            byte[] compressed = Arrays.copyOf(buffer, length + TRAILER_LENGTH);
+            writeIntLittleEndian(compressed, length, (int) crc.getValue());
+            writeIntLittleEndian(compressed, length + 4, data.length);
+            if (buffer.length > MAX_POOLED_BUFFER) {
+                buffer = new byte[INITIAL_BUFFER];
+            }
+            return compressed;
+        }
+
+        private static void writeIntLittleEndian(byte[] bytes, int offset, int value) {
+            bytes[offset] = (byte) value;
+            bytes[offset + 1] = (byte) (value >>> 8);
+            bytes[offset + 2] = (byte) (value >>> 16);
+            bytes[offset + 3] = (byte) (value >>> 24);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.springboot.todoapp_backend.model.ToDoIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class IdConfig {
+
+    public IdConfig(
+            @Value("${todoapp.ids.strategy:random-uuid}") ToDoIds.Strategy strategy,
+            @Value("${todoapp.ids.node:0}") int node
+    ) {
+        ToDoIds.use(strategy, node);
+    }
+}
@@ -0,0 +1,27 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.springboot.todoapp_backend.persistence.FileToDoPersistence;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.persistence.ToDoPersistence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class PersistenceConfig {
+
+    @Bean
+    public ToDoPersistence toDoPersistence(
+            @Value("${todoapp.persistence.dir:}") String directory,
+            @Value("${todoapp.persistence.sync-writes:true}") boolean syncWrites,
+            @Value("${todoapp.persistence.flush-interval-ms:10}") long flushIntervalMillis,
+            @Value("${todoapp.persistence.snapshot-every:100000}") long snapshotEvery
+    ) {
+        if (directory.isBlank()) {
+            return new NoOpToDoPersistence();
+        }
+        return new FileToDoPersistence(Path.of(directory), syncWrites, flushIntervalMillis, snapshotEvery);
+    }
+}
@@ -0,0 +1,512 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.springboot.todoapp_backend.dtos.BatchItemResultDTO;
+import com.springboot.todoapp_backend.dtos.CompletionTimeStatsDTO;
+import com.springboot.todoapp_backend.dtos.DueDateCountDTO;
+import com.springboot.todoapp_backend.dtos.ImportErrorDTO;
+import com.springboot.todoapp_backend.dtos.ImportResultDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+//Protobuf encoding of the /todos responses following src/main/proto/todo.proto, written by hand so the build needs no
+//code generation. Nested messages get their length prefix once their size is known, the body is only moved when
+//the prefix turns out shorter than the room kept for it
+public final class ProtobufCodec {
+
+    private static final int VARINT = 0;
+    private static final int FIXED64 = 1;
+    private static final int LENGTH_DELIMITED = 2;
+    private static final int FIXED32 = 5;
+
+    private static final ToDo.Priority[] PRIORITIES = ToDo.Priority.values();
+
+    private ProtobufCodec() {
+    }
+
+    //Whether encode takes bodies of the type
+    public static boolean supports(Class<?> type) {
+        return ToDo.class.isAssignableFrom(type) || ApiResponse.class.isAssignableFrom(type)
+                || Map.class.isAssignableFrom(type);
+    }
+
+    public static byte[] encode(Object body) {
+        Writer writer = new Writer();
+        if (body instanceof ToDo item) {
+            writeToDo(writer, item);
+        } else if (body instanceof ApiResponse<?> response) {
+            writeResponse(writer, response);
+        } else if (body instanceof Map<?, ?> stats) {
+            writeCompletionStats(writer, stats);
+        } else {
+            throw new IllegalArgumentException("No Protobuf message for " + body.getClass().getSimpleName());
+        }
+        return writer.toByteArray();
+    }
+
+    private static void writeResponse(Writer writer, ApiResponse<?> response) {
+        writer.int64(1, response.getStatus());
+        writer.string(2, response.getMessage());
+        if (response.getTotalItems() != null) {
+            writer.tag(3, VARINT);
+            writer.varint(response.getTotalItems());
+        }
+        writer.string(4, response.getNextCursor());
+        Object data = response.getData();
+        if (data instanceof ToDo item) {
+            int start = writer.startMessage(5);
+            writeToDo(writer, item);
+            writer.endMessage(start);
+        } else if (data instanceof String text) {
+            writer.string(10, text);
+        } else if (data instanceof ImportResultDTO result) {
+            int start = writer.startMessage(9);
+            writeImportResult(writer, result);
+            writer.endMessage(start);
+        } else if (data instanceof List<?> list) {
+            writeList(writer, list);
+        } else if (data != null) {
+            throw new IllegalArgumentException("No Protobuf message for " + data.getClass().getSimpleName());
+        }
+    }
+
+    // The element type picks the message, an empty list is sent as an empty ToDoList
+    private static void writeList(Writer writer, List<?> list) {
+        Object first = list.isEmpty() ? null : list.get(0);
+        int field = first instanceof BatchItemResultDTO ? 7 : first instanceof DueDateCountDTO ? 8 : 6;
+        int start = writer.startMessage(field);
+        for (Object element : list) {
+            int elementStart = writer.startMessage(1);
+            if (element instanceof ToDo item && field == 6) {
+                writeToDo(writer, item);
+            } else if (element instanceof BatchItemResultDTO result && field == 7) {
+                writeBatchItemResult(writer, result);
+            } else if (element instanceof DueDateCountDTO count && field == 8) {
+                writer.sint64(1, count.getDate().toEpochDay());
+                writer.int64(2, count.getTotal());
+                writer.int64(3, count.getUndone());
+            } else {
+                throw new IllegalArgumentException("Lists of mixed types have no Protobuf message");
+            }
+            writer.endMessage(elementStart);
+        }
+        writer.endMessage(start);
+    }
+
+    private static void writeToDo(Writer writer, ToDo item) {
+        writeId(writer, item.getId());
+        writer.string(4, item.getText());
+        if (item.getDueDate() != null) {
+            // Optional field, written even when it is the epoch day 0
+            writer.tag(5, VARINT);
+            writer.varint(zigZag(item.getDueDate().toEpochDay()));
+        }
+        if (item.isDone()) {
+            writer.int64(6, 1);
+        }
+        writeDateTime(writer, 7, item.getDoneDate());
+        if (item.getPriority() != null) {
+            writer.int64(8, item.getPriority().ordinal() + 1);
+        }
+        writeDateTime(writer, 9, item.getCreationDate());
+    }
+
+    private static void writeId(Writer writer, String id) {
+        if (id == null) {
+            return;
+        }
+        UUID uuid = parseUuid(id);
+        if (uuid != null) {
+            writer.tag(1, LENGTH_DELIMITED);
+            writer.varint(16);
+            writer.fixed64BigEndian(uuid.getMostSignificantBits());
+            writer.fixed64BigEndian(uuid.getLeastSignificantBits());
+            return;
+        }
+        long number = parseNumber(id);
+        if (number >= 0) {
+            writer.tag(2, VARINT);
+            writer.varint(number);
+            return;
+        }
+        writer.string(3, id);
+    }
+
+    private static void writeDateTime(Writer writer, int field, LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return;
+        }
+        int start = writer.startMessage(field);
+        writer.sint64(1, dateTime.toEpochSecond(ZoneOffset.UTC));
+        writer.int64(2, dateTime.getNano());
+        writer.endMessage(start);
+    }
+
+    private static void writeBatchItemResult(Writer writer, BatchItemResultDTO result) {
+        writer.int64(1, result.getIndex());
+        writer.string(2, result.getId());
+        if (result.getStatus() != null) {
+            writer.int64(3, result.getStatus().ordinal() + 1);
+        }
+        writer.string(4, result.getMessage());
+        if (result.getItem() != null) {
+            int start = writer.startMessage(5);
+            writeToDo(writer, result.getItem());
+            writer.endMessage(start);
+        }
+    }
+
+    private static void writeImportResult(Writer writer, ImportResultDTO result) {
+        writer.int64(1, result.getLinesRead());
+        writer.int64(2, result.getImported());
+        writer.int64(3, result.getRejected());
+        for (ImportErrorDTO error : result.getErrors()) {
+            int start = writer.startMessage(4);
+            writer.int64(1, error.getLine());
+            writer.string(2, error.getMessage());
+            writer.endMessage(start);
+        }
+    }
+
+    // Maps of strings are the completion stats, maps of maps the completion percentiles
+    private static void writeCompletionStats(Writer writer, Map<?, ?> stats) {
+        for (Map.Entry<?, ?> entry : stats.entrySet()) {
+            if (entry.getValue() instanceof Map<?, ?> byPriority) {
+                int start = writer.startMessage(2);
+                writer.string(1, String.valueOf(entry.getKey()));
+                int valueStart = writer.startMessage(2);
+                for (Map.Entry<?, ?> priority : byPriority.entrySet()) {
+                    int priorityStart = writer.startMessage(1);
+                    writer.string(1, String.valueOf(priority.getKey()));
+                    int statsStart = writer.startMessage(2);
+                    CompletionTimeStatsDTO times = (CompletionTimeStatsDTO) priority.getValue();
+                    writer.int64(1, times.getCount());
+                    writer.string(2, times.getP50());
+                    writer.string(3, times.getP90());
+                    writer.string(4, times.getP99());
+                    writer.string(5, times.getMax());
+                    writer.endMessage(statsStart);
+                    writer.endMessage(priorityStart);
+                }
+                writer.endMessage(valueStart);
+                writer.endMessage(start);
+            } else {
+                int start = writer.startMessage(1);
+                writer.string(1, String.valueOf(entry.getKey()));
+                writer.string(2, entry.getValue() == null ? null : String.valueOf(entry.getValue()));
+                writer.endMessage(start);
+            }
+        }
+    }
+
+    public static ToDo decodeToDo(byte[] bytes) {
+        return readToDo(new Reader(bytes, 0, bytes.length));
+    }
+
+    //Reads a response back, with the data of items, a single item or text. Other data is skipped like any unknown field
+    public static ApiResponse<Object> decodeResponse(byte[] bytes) {
+        Reader reader = new Reader(bytes, 0, bytes.length);
+        ApiResponse<Object> response = new ApiResponse<>(0, "", null, null, null);
+        while (reader.hasMore()) {
+            int tag = (int) reader.varint();
+            switch (tag >>> 3) {
+                case 1 -> response.setStatus((int) reader.varint());
+                case 2 -> response.setMessage(reader.string());
+                case 3 -> response.setTotalItems((int) reader.varint());
+                case 4 -> response.setNextCursor(reader.string());
+                case 5 -> response.setData(readToDo(reader.message()));
+                case 6 -> {
+                    Reader list = reader.message();
+                    List<ToDo> items = new ArrayList<>();
+                    while (list.hasMore()) {
+                        int itemTag = (int) list.varint();
+                        if (itemTag >>> 3 == 1) {
+                            items.add(readToDo(list.message()));
+                        } else {
+                            list.skip(itemTag);
+                        }
+                    }
+                    response.setData(items);
+                }
+                case 10 -> response.setData(reader.string());
+                default -> reader.skip(tag);
+            }
+        }
+        return response;
+    }
+
+    private static ToDo readToDo(Reader reader) {
+        String id = null;
+        String text = null;
+        LocalDate dueDate = null;
+        boolean done = false;
+        LocalDateTime doneDate = null;
+        ToDo.Priority priority = null;
+        LocalDateTime creationDate = null;
+        while (reader.hasMore()) {
+            int tag = (int) reader.varint();
+            switch (tag >>> 3) {
+                case 1 -> {
+                    Reader uuid = reader.message();
+                    id = new UUID(uuid.fixed64BigEndian(), uuid.fixed64BigEndian()).toString();
+                }
+                case 2 -> id = Long.toUnsignedString(reader.varint());
+                case 3 -> id = reader.string();
+                case 4 -> text = reader.string();
+                case 5 -> dueDate = LocalDate.ofEpochDay(unZigZag(reader.varint()));
+                case 6 -> done = reader.varint() != 0;
+                case 7 -> doneDate = readDateTime(reader.message());
+                case 8 -> {
+                    int ordinal = (int) reader.varint();
+                    priority = ordinal >= 1 && ordinal <= PRIORITIES.length ? PRIORITIES[ordinal - 1] : null;
+                }
+                case 9 -> creationDate = readDateTime(reader.message());
+                default -> reader.skip(tag);
+            }
+        }
+        return new ToDo(id, text, dueDate, done, doneDate, priority, creationDate);
+    }
+
+    private static LocalDateTime readDateTime(Reader reader) {
+        long seconds = 0;
+        int nanos = 0;
+        while (reader.hasMore()) {
+            int tag = (int) reader.varint();
+            switch (tag >>> 3) {
+                case 1 -> seconds = unZigZag(reader.varint());
+                case 2 -> nanos = (int) reader.varint();
+                default -> reader.skip(tag);
+            }
+        }
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    //The UUID when the id is one in its canonical lower case form, which it then comes back as, null otherwise
+    private static UUID parseUuid(String id) {
+        if (id.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    //The number when the id is a decimal without leading zeros that fits a long, -1 otherwise
+    private static long parseNumber(String id) {
+        if (id.isEmpty() || id.length() > 19 || (id.length() > 1 && id.charAt(0) == '0')) {
+            return -1;
+        }
+        long number = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            number = number * 10 + (c - '0');
+            if (number < 0) {
+                return -1;
+            }
+        }
+        return number;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Writer {
+
+        // Room kept for the length prefix of a nested message, a varint of up to 2^28 - 1
+        private static final int PREFIX_BYTES = 4;
+
+        private byte[] buffer = new byte[256];
+        private int position = 0;
+
+        void tag(int field, int wireType) {
+            varint(((long) field << 3) | wireType);
+        }
+
+        // Fields left at their default value are not written, as proto3 does
+        void int64(int field, long value) {
+            if (value != 0) {
+                tag(field, VARINT);
+                varint(value);
+            }
+        }
+
+        void sint64(int field, long value) {
+            if (value != 0) {
+                tag(field, VARINT);
+                varint(zigZag(value));
+            }
+        }
+
+        void string(int field, String value) {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            tag(field, LENGTH_DELIMITED);
+            varint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void varint(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void fixed64BigEndian(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        //Writes the tag and keeps room for the length, returning where the body starts
+        int startMessage(int field) {
+            tag(field, LENGTH_DELIMITED);
+            ensure(PREFIX_BYTES);
+            position += PREFIX_BYTES;
+            return position;
+        }
+
+        void endMessage(int start) {
+            int length = position - start;
+            if (length >= 1 << (7 * PREFIX_BYTES)) {
+                throw new IllegalArgumentException("Message too large for Protobuf encoding");
+            }
+            int prefix = varintSize(length);
+            int prefixStart = start - PREFIX_BYTES;
+            if (prefix < PREFIX_BYTES) {
+                System.arraycopy(buffer, start, buffer, prefixStart + prefix, length);
+            }
+            position = prefixStart;
+            varint(length);
+            position = prefixStart + prefix + length;
+        }
+
+        private static int varintSize(int value) {
+            int size = 1;
+            while ((value & ~0x7F) != 0) {
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + bytes));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] bytes;
+        private int position;
+        private final int limit;
+
+        Reader(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        boolean hasMore() {
+            return position < limit;
+        }
+
+        long varint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = next();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        long fixed64BigEndian() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (next() & 0xFF);
+            }
+            return value;
+        }
+
+        String string() {
+            int length = length();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        Reader message() {
+            int length = length();
+            Reader message = new Reader(bytes, position, position + length);
+            position += length;
+            return message;
+        }
+
+        void skip(int tag) {
+            switch (tag & 7) {
+                case VARINT -> varint();
+                case FIXED64 -> advance(8);
+                case LENGTH_DELIMITED -> advance(length());
+                case FIXED32 -> advance(4);
+                default -> throw new IllegalArgumentException("Unsupported wire type " + (tag & 7));
+            }
+        }
+
+        private int length() {
+            long length = varint();
+            if (length < 0 || length > limit - position) {
+                throw new IllegalArgumentException("Truncated Protobuf message");
+            }
+            return (int) length;
+        }
+
+        private void advance(int bytes) {
+            if (bytes > limit - position) {
+                throw new IllegalArgumentException("Truncated Protobuf message");
+            }
+            position += bytes;
+        }
+
+        private byte next() {
+            if (position >= limit) {
+                throw new IllegalArgumentException("Truncated Protobuf message");
+            }
+            return bytes[position++];
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+
+//Writes ToDo, ApiResponse and the completion stats as application/x-protobuf. Requests keep coming in as JSON
+public class ProtobufMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public ProtobufMessageConverter() {
+        super(WireFormat.PROTOBUF.mediaType());
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ProtobufCodec.supports(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = ProtobufCodec.encode(body);
+        } catch (IllegalArgumentException ex) {
+            throw new HttpMessageNotWritableException(ex.getMessage(), ex);
+        }
+        outputMessage.getHeaders().setContentLength(bytes.length);
+        outputMessage.getBody().write(bytes);
+    }
+}
@@ -0,0 +1,20 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+
+@Configuration
+public class StoreConfig {
+
+    // The id strategy has to be in place before anything reaches the store
+    @Bean
+    @DependsOn("idConfig")
+    public ToDoStore toDoStore(@Value("${todoapp.store.layout:objects}") ToDoStore.Layout layout,
+                               @Value("${todoapp.store.shards:0}") int shards) {
+        //0 gives every core its own shard
+        return new ToDoStore(layout, shards > 0 ? shards : Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -1,13 +1,25 @@
 package com.springboot.todoapp_backend.Utilities;
 
-import org.springframework.context.annotation.Bean;
+import com.springboot.todoapp_backend.controller.FollowerInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    // Only there when this node is a replication follower
+    private final ObjectProvider<FollowerInterceptor> followerInterceptor;
+
+    public WebConfig(ObjectProvider<FollowerInterceptor> followerInterceptor) {
+        this.followerInterceptor = followerInterceptor;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -16,4 +28,15 @@ public class WebConfig implements WebMvcConfigurer {
                 .allowedHeaders("*")
                 .allowCredentials(true);
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        followerInterceptor.ifAvailable(interceptor -> registry.addInterceptor(interceptor).addPathPatterns("/todos/**"));
+    }
+
+    //After the defaults, so clients that accept anything keep getting JSON
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProtobufMessageConverter());
+    }
 }
@@ -0,0 +1,75 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+//Encodings the /todos responses can be sent in, picked from the Accept header. Smile and CBOR are the JSON
+//documents in a binary form, Protobuf follows src/main/proto/todo.proto with compact dates and ids
+public enum WireFormat {
+    JSON(MediaType.APPLICATION_JSON, null),
+    SMILE(MediaType.parseMediaType(WireFormat.SMILE_VALUE), "smile"),
+    CBOR(MediaType.APPLICATION_CBOR, "cbor"),
+    PROTOBUF(MediaType.parseMediaType(WireFormat.PROTOBUF_VALUE), "protobuf");
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+
+    private final MediaType mediaType;
+
+    // Told apart in ETags, a validator only ever stands for one encoding of a response
+    private final String etagSuffix;
+
+    WireFormat(MediaType mediaType, String etagSuffix) {
+        this.mediaType = mediaType;
+        this.etagSuffix = etagSuffix;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String etagSuffix() {
+        return etagSuffix;
+    }
+
+    //The Jackson mapper of the format with the modules and settings of the JSON one, null for Protobuf
+    public ObjectMapper mapper(ObjectMapper json) {
+        return switch (this) {
+            case JSON -> json;
+            case SMILE -> json.copyWith(new SmileFactory());
+            case CBOR -> json.copyWith(new CBORFactory());
+            case PROTOBUF -> null;
+        };
+    }
+
+    //The most preferred format the Accept header allows, JSON when it allows none or there is no header
+    public static WireFormat negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (WireFormat format : values()) {
+                if (type.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,69 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.service.ReplicationFollower;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.util.Set;
+
+//Makes a follower read-only: writes are redirected to the leader with 307, which keeps their method and body, and
+//reads are refused with 503 while the copy may be further behind the leader than todoapp.replication.max-lag-ms
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todoapp.replication.role", havingValue = "follower")
+public class FollowerInterceptor implements HandlerInterceptor {
+
+    public static final String LAG_HEADER = "X-Replication-Lag-Ms";
+
+    private static final Set<String> READS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final ReplicationFollower follower;
+
+    private final ObjectMapper objectMapper;
+
+    private final long maxLagMillis;
+
+    public FollowerInterceptor(
+            ReplicationFollower follower,
+            ObjectMapper objectMapper,
+            @Value("${todoapp.replication.max-lag-ms:5000}") long maxLagMillis
+    ) {
+        this.follower = follower;
+        this.objectMapper = objectMapper;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!READS.contains(request.getMethod())) {
+            String query = request.getQueryString();
+            response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+            response.setHeader(HttpHeaders.LOCATION,
+                    follower.leaderUrl() + request.getRequestURI() + (query == null ? "" : "?" + query));
+            return false;
+        }
+        long lag = follower.lagMillis();
+        if (lag > maxLagMillis) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(
+                    "This replica is behind the leader, try again shortly", HttpStatus.SERVICE_UNAVAILABLE));
+            return false;
+        }
+        response.setHeader(LAG_HEADER, String.valueOf(lag));
+        return true;
+    }
+}
@@ -0,0 +1,309 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.Gzip;
+import com.springboot.todoapp_backend.Utilities.WireFormat;
+import com.springboot.todoapp_backend.dtos.BatchItemResultDTO;
+import com.springboot.todoapp_backend.dtos.BatchUpdateToDoDTO;
+import com.springboot.todoapp_backend.dtos.CompletionTimeStatsDTO;
+import com.springboot.todoapp_backend.dtos.DueDateCountDTO;
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.service.ToDoChangeFeed;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoPage;
+import com.springboot.todoapp_backend.store.ToDoSort;
+import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+//The /todos API on WebFlux, active when the app runs as a reactive web application. Reads are served from
+//memory on the event loop, writes return right after the store is updated and answer once the change log
+//says the change is durable, so no event loop thread ever waits for the disk
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/todos")
+public class ReactiveToDoController {
+
+    // Change events kept for a client that reads slower than they come
+    private static final int MAX_BUFFERED_EVENTS = 256;
+
+    private final ToDoService toDoService;
+
+    private final ToDoPageCache pageCache;
+
+    private final ToDoChangeFeed changeFeed;
+
+    public ReactiveToDoController(ToDoService toDoService, ToDoPageCache pageCache, ToDoChangeFeed changeFeed) {
+        this.toDoService = toDoService;
+        this.pageCache = pageCache;
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ToDo>> getItem(@PathVariable String id, ServerWebExchange exchange) {
+        String etag = ToDoPageCache.etag(toDoService.itemVersion(id));
+        Optional<ToDo> item = toDoService.getItem(id);
+        if (item.isEmpty()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        if (exchange.checkNotModified(etag)) {
+            return Mono.empty();
+        }
+        return Mono.just(ResponseEntity.ok().eTag(etag).body(item.get()));
+    }
+
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, WireFormat.SMILE_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, WireFormat.PROTOBUF_VALUE})
+    public Mono<ResponseEntity<byte[]>> getFilteredList(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) ToDo.Priority priority,
+            @RequestParam(required = false) Boolean isDone,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            ServerWebExchange exchange
+    ) {
+        // Parsed up front so a bad sortBy is rejected even when the list has not changed
+        ToDoSort.of(sortBy, order);
+
+        WireFormat format = WireFormat.negotiate(accept);
+        boolean gzip = Gzip.accepted(acceptEncoding);
+        long version = toDoService.version();
+        String etag = ToDoPageCache.etag(version, format, gzip);
+        if (exchange.checkNotModified(etag)) {
+            return Mono.empty();
+        }
+
+        ToDoPageCache.PageKey key = new ToDoPageCache.PageKey(text, priority, isDone, page, cursor, sortBy, order, format, version);
+        ToDoPageCache.CachedPage body = pageCache.page(key, gzip, () -> {
+            ToDoPage todoPage = cursor != null
+                    ? toDoService.getFilteredPage(text, priority, isDone, cursor, sortBy, order)
+                    : toDoService.getFilteredPage(text, priority, isDone, page, sortBy, order);
+            if (todoPage.items().isEmpty()) {
+                return null;
+            }
+            return ApiResponse.successWithTotalItems("List retrieved successfully",
+                    todoPage.items(), todoPage.totalItems(), todoPage.nextCursor());
+        });
+        if (body.body().length == 0) {
+            return Mono.just(ResponseEntity.noContent().eTag(etag).build());
+        }
+        return Mono.just(ResponseEntity.ok().eTag(etag).contentType(format.mediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers -> {
+                    if (body.gzipped()) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .body(body.body()));
+    }
+
+    //Every matching item as NDJSON, read from the store a chunk at a time as the client consumes them
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public Flux<ToDo> exportItems(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) ToDo.Priority priority,
+            @RequestParam(required = false) Boolean isDone
+    ) {
+        return Flux.fromIterable(() -> toDoService.itemChunks(text, priority, isDone))
+                .concatMapIterable(chunk -> chunk);
+    }
+
+    //Same stream as ToDoFeedController, each subscriber buffers what the client has not read yet up to a limit. A client
+    //that falls further behind gets its stream ended after the buffered events and resumes from its Last-Event-ID
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> changes(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        return Flux.defer(() -> {
+            Sinks.Many<ServerSentEvent<String>> sink = Sinks.many().unicast()
+                    .onBackpressureBuffer(Queues.<ServerSentEvent<String>>get(MAX_BUFFERED_EVENTS).get());
+            Runnable unsubscribe = changeFeed.subscribe(lastEventId != null ? lastEventId : since, event -> {
+                if (sink.tryEmitNext(toSse(event)).isFailure()) {
+                    throw new IOException("The client is gone or too far behind");
+                }
+            }, sink::tryEmitComplete);
+            return sink.asFlux().doFinally(signal -> unsubscribe.run());
+        });
+    }
+
+    private static ServerSentEvent<String> toSse(ToDoChangeFeed.Event event) {
+        return switch (event.type()) {
+            case CHANGES -> ServerSentEvent.builder(event.data())
+                    .id(Long.toString(event.sequence()))
+                    .event("changes")
+                    .build();
+            case RESET -> ServerSentEvent.builder(Long.toString(event.sequence()))
+                    .id(Long.toString(event.sequence()))
+                    .event("reset")
+                    .build();
+            case HEARTBEAT -> ServerSentEvent.<String>builder().comment("heartbeat").build();
+        };
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<ApiResponse<ToDo>>> addItem(@Valid @RequestBody NewToDoDTO request) {
+        return Mono.fromFuture(toDoService.addItemAsync(request))
+                .map(newItem -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("New item created: ", newItem)));
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<ApiResponse<List<BatchItemResultDTO>>>> addItems(@RequestBody List<NewToDoDTO> requests) {
+        return offload(() -> toDoService.addItems(requests));
+    }
+
+    @PutMapping("/batch")
+    public Mono<ResponseEntity<ApiResponse<List<BatchItemResultDTO>>>> updateItems(
+            @RequestBody List<BatchUpdateToDoDTO> requests
+    ) {
+        return offload(() -> toDoService.updateItems(requests));
+    }
+
+    @PostMapping("/batch/delete")
+    public Mono<ResponseEntity<ApiResponse<List<BatchItemResultDTO>>>> deleteItems(@RequestBody List<String> ids) {
+        return offload(() -> toDoService.deleteItems(ids));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<ToDo>>> updateItem(
+            @PathVariable String id,
+            @Valid @RequestBody UpdateToDoDTO request
+    ) {
+        return Mono.fromFuture(toDoService.updateItemAsync(id, request))
+                .map(updatedItem -> updatedItem
+                        .map(todo -> ResponseEntity.ok(ApiResponse.success("Item successfully updated", todo)))
+                        .orElseGet(ReactiveToDoController::notFound));
+    }
+
+    @PostMapping("/{id}/done")
+    public Mono<ResponseEntity<ApiResponse<ToDo>>> markAsDone(@PathVariable String id) {
+        Optional<ToDo> existingItem = toDoService.getItem(id);
+        if (existingItem.isEmpty()) {
+            return Mono.just(notFound());
+        }
+        if (existingItem.get().isDone()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .body(ApiResponse.success("The item is already marked as done.", existingItem.get())));
+        }
+        return Mono.fromFuture(toDoService.markAsDoneAsync(id))
+                .map(updatedItem -> updatedItem
+                        .map(todo -> ResponseEntity.ok(ApiResponse.success("Item successfully marked as done.", todo)))
+                        .orElseGet(ReactiveToDoController::notFound));
+    }
+
+    @PutMapping("/{id}/undone")
+    public Mono<ResponseEntity<ApiResponse<ToDo>>> markAsUndone(@PathVariable String id) {
+        Optional<ToDo> existingItem = toDoService.getItem(id);
+        if (existingItem.isEmpty()) {
+            return Mono.just(notFound());
+        }
+        if (!existingItem.get().isDone()) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .body(ApiResponse.success("The item is already marked as undone.", existingItem.get())));
+        }
+        return Mono.fromFuture(toDoService.markAsUndoneAsync(id))
+                .map(updatedItem -> updatedItem
+                        .map(todo -> ResponseEntity.ok(ApiResponse.success("Item successfully marked as undone.", todo)))
+                        .orElseGet(ReactiveToDoController::notFound));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<ApiResponse<String>>> deleteItem(@PathVariable String id) {
+        return Mono.fromFuture(toDoService.deleteItemAsync(id))
+                .map(deletedItem -> deletedItem.isPresent()
+                        ? ResponseEntity.ok(ApiResponse.<String>success("Item successfully deleted", null))
+                        : ReactiveToDoController.<String>notFound());
+    }
+
+    @GetMapping("/completion-stats")
+    public Mono<ResponseEntity<Map<String, String>>> getCompletionStatistics() {
+        return Mono.just(ResponseEntity.ok(toDoService.getCompletionStats()));
+    }
+
+    @GetMapping("/completion-stats/percentiles")
+    public Mono<ResponseEntity<Map<String, Map<String, CompletionTimeStatsDTO>>>> getCompletionPercentiles() {
+        return Mono.just(ResponseEntity.ok(toDoService.getCompletionPercentiles()));
+    }
+
+    @GetMapping("/due/overdue")
+    public Mono<ResponseEntity<ApiResponse<List<ToDo>>>> getOverdueItems(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return dueItemsResponse("Overdue items retrieved successfully", () -> toDoService.getOverdueItems(limit));
+    }
+
+    @GetMapping("/due/today")
+    public Mono<ResponseEntity<ApiResponse<List<ToDo>>>> getItemsDueToday(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return dueItemsResponse("Items due today retrieved successfully", () -> toDoService.getItemsDueToday(limit));
+    }
+
+    @GetMapping("/due/soon")
+    public Mono<ResponseEntity<ApiResponse<List<ToDo>>>> getItemsDueSoon(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return dueItemsResponse("Items due soon retrieved successfully",
+                () -> toDoService.getItemsDueWithin(days, limit));
+    }
+
+    @GetMapping("/due/calendar")
+    public Mono<ResponseEntity<ApiResponse<List<DueDateCountDTO>>>> getDueDateCalendar(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String unit
+    ) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(
+                ApiResponse.success("Calendar retrieved successfully", toDoService.getDueDateCalendar(from, to, unit))));
+    }
+
+    //Index lookups proportional to the result, cheap enough for the event loop
+    private Mono<ResponseEntity<ApiResponse<List<ToDo>>>> dueItemsResponse(String message, Supplier<ToDoPage> query) {
+        return Mono.fromSupplier(query).map(dueItems -> ResponseEntity.ok(
+                ApiResponse.successWithTotalItems(message, dueItems.items(), dueItems.totalItems())));
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> notFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(ApiResponse.error("Item not found", HttpStatus.NOT_FOUND));
+    }
+
+    //Batches wait for the log flush inside the service, so they run off the event loop
+    private Mono<ResponseEntity<ApiResponse<List<BatchItemResultDTO>>>> offload(Callable<List<BatchItemResultDTO>> batch) {
+        return Mono.fromCallable(batch)
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(results -> {
+                    long applied = results.stream().filter(BatchItemResultDTO::isApplied).count();
+                    HttpStatus status = applied == results.size() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+                    String message = String.format("%d of %d items applied", applied, results.size());
+                    return ResponseEntity.status(status)
+                            .body(new ApiResponse<>(status.value(), message, results, results.size(), null));
+                });
+    }
+}
@@ -0,0 +1,70 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.dtos.ReplicationChangesDTO;
+import com.springboot.todoapp_backend.dtos.ReplicationSnapshotDTO;
+import com.springboot.todoapp_backend.dtos.ToDoChangeDTO;
+import com.springboot.todoapp_backend.service.ReplicationLog;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.StoreSnapshot;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+//What followers copy from the leader: a snapshot to start from, then the change log after it
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "todoapp.replication.role", havingValue = "leader")
+@RequestMapping("/replication")
+public class ReplicationController {
+
+    // Upper bounds on what one request can ask for, so a follower cannot hold a thread or the heap for long
+    private static final int MAX_CHANGES = 10000;
+    private static final long MAX_WAIT_MILLIS = 30000;
+
+    private final ToDoService toDoService;
+
+    private final ReplicationLog replicationLog;
+
+    public ReplicationController(ToDoService toDoService, ReplicationLog replicationLog) {
+        this.toDoService = toDoService;
+        this.replicationLog = replicationLog;
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<ReplicationSnapshotDTO> getSnapshot() {
+        StoreSnapshot snapshot = toDoService.snapshot();
+        return ResponseEntity.ok(new ReplicationSnapshotDTO(snapshot.sequence(), snapshot.items()));
+    }
+
+    //Long poll: answers as soon as there is a change after the given sequence, or empty once waitMs is over.
+    //410 Gone tells the follower to start again from a snapshot
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(
+            @RequestParam long after,
+            @RequestParam(defaultValue = "1000") int limit,
+            @RequestParam(defaultValue = "0") long waitMs
+    ) throws InterruptedException {
+        if (limit < 1 || limit > MAX_CHANGES) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_CHANGES);
+        }
+        if (waitMs < 0 || waitMs > MAX_WAIT_MILLIS) {
+            throw new IllegalArgumentException("'waitMs' must be between 0 and " + MAX_WAIT_MILLIS);
+        }
+        List<ToDoChange> changes = replicationLog.changesAfter(after, limit, waitMs);
+        if (changes == null) {
+            return ResponseEntity.status(HttpStatus.GONE).body(ApiResponse.error(
+                    "The changes after " + after + " are no longer kept, load a snapshot", HttpStatus.GONE));
+        }
+        List<ToDoChangeDTO> deltas = changes.stream().map(ToDoChangeDTO::of).toList();
+        return ResponseEntity.ok(new ReplicationChangesDTO(replicationLog.sequence(), deltas));
+    }
+}
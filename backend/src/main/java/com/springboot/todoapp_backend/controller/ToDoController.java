@@ -1,77 +1,116 @@
 package com.springboot.todoapp_backend.controller;
 
 import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.Gzip;
+import com.springboot.todoapp_backend.Utilities.WireFormat;
+import com.springboot.todoapp_backend.dtos.BatchItemResultDTO;
+import com.springboot.todoapp_backend.dtos.BatchUpdateToDoDTO;
+import com.springboot.todoapp_backend.dtos.CompletionTimeStatsDTO;
+import com.springboot.todoapp_backend.dtos.DueDateCountDTO;
 import com.springboot.todoapp_backend.dtos.NewToDoDTO;
 import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
 import com.springboot.todoapp_backend.model.ToDo;
 import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoPage;
+import com.springboot.todoapp_backend.store.ToDoSort;
 import jakarta.validation.Valid;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+//Blocking Spring MVC endpoints, ReactiveToDoController serves the same paths when the app runs on WebFlux
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/todos")
 public class ToDoController {
 
     private final ToDoService toDoService;
 
-    public ToDoController(ToDoService toDoService){
+    private final ToDoPageCache pageCache;
+
+    public ToDoController(ToDoService toDoService, ToDoPageCache pageCache){
         this.toDoService = toDoService;
+        this.pageCache = pageCache;
     }
 
+    //The version is read before the item, so the ETag can only be older than the body and never hides a change
     @GetMapping("/{id}")
-    public ResponseEntity<ToDo> getItem(@PathVariable String id){
+    public ResponseEntity<ToDo> getItem(@PathVariable String id, WebRequest request){
         if (id == null || id.isEmpty()){
             return ResponseEntity.badRequest().body(null);
         }
+        String etag = ToDoPageCache.etag(toDoService.itemVersion(id));
         Optional<ToDo> item = toDoService.getItem(id);
-        return item.map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+        if (item.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).body(item.get());
     }
 
-    @GetMapping
-    public ResponseEntity<ApiResponse<List<ToDo>>>  getFilteredList(
+    //Answered with 304 when the store has not changed since the client's copy, and from the page cache when
+    //another client already asked for the same page at this version
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, WireFormat.SMILE_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE, WireFormat.PROTOBUF_VALUE})
+    public ResponseEntity<byte[]> getFilteredList(
             @RequestParam(required = false) String text,
             @RequestParam(required = false) ToDo.Priority priority,
             @RequestParam(required = false) Boolean isDone,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(required = false) String sortBy,
-            @RequestParam(required = false) String order
+            @RequestParam(required = false) String order,
+            @RequestParam(required = false) String cursor,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request
     ){
 
-        if (sortBy != null && !sortBy.equalsIgnoreCase("priority") && !sortBy.equalsIgnoreCase("dueDate")) {
-            return ResponseEntity.badRequest()
-                    .body(ApiResponse.error("Invalid value for 'sortBy'. Accepted values are 'priority' or 'dueDate'"));
+        // Parsed up front so a bad sortBy is rejected even when the list has not changed
+        ToDoSort.of(sortBy, order);
+
+        WireFormat format = WireFormat.negotiate(accept);
+        boolean gzip = Gzip.accepted(acceptEncoding);
+        long version = toDoService.version();
+        String etag = ToDoPageCache.etag(version, format, gzip);
+        if (request.checkNotModified(etag)) {
+            return null;
         }
 
-        List<ToDo> todoList = toDoService.getFilteredList(
-                text,
-                priority,
-                isDone,
-                page,
-                sortBy,
-                order
-        );
+        ToDoPageCache.PageKey key = new ToDoPageCache.PageKey(text, priority, isDone, page, cursor, sortBy, order, format, version);
+        ToDoPageCache.CachedPage body = pageCache.page(key, gzip, () -> {
+            ToDoPage todoPage = cursor != null
+                    ? toDoService.getFilteredPage(text, priority, isDone, cursor, sortBy, order)
+                    : toDoService.getFilteredPage(text, priority, isDone, page, sortBy, order);
+            List<ToDo> todoList = todoPage.items();
 
-        Integer totalItems = toDoService.getTotalItems(
-                text,
-                priority,
-                isDone,
-                sortBy
-        );
+            if (todoList.isEmpty()) {
+                return null;
+            }
 
-        if (todoList.isEmpty()) {
+            return ApiResponse.successWithTotalItems("List retrieved successfully", todoList, todoPage.totalItems(), todoPage.nextCursor());
+        });
+
+        if (body.body().length == 0) {
             return ResponseEntity.noContent().build();
         }
-
-        return ResponseEntity.ok(
-                ApiResponse.successWithTotalItems("List retrieved successfully", todoList, totalItems)
-        );
+        return ResponseEntity.ok().eTag(etag).contentType(format.mediaType())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .headers(headers -> {
+                    if (body.gzipped()) {
+                        headers.set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    }
+                })
+                .body(body.body());
     }
 
     @PostMapping
@@ -81,6 +120,23 @@ public class ToDoController {
                 .body(ApiResponse.success("New item created: ", newItem));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> addItems(@RequestBody List<NewToDoDTO> requests) {
+        return batchResponse(toDoService.addItems(requests));
+    }
+
+    @PutMapping("/batch")
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> updateItems(
+            @RequestBody List<BatchUpdateToDoDTO> requests
+    ) {
+        return batchResponse(toDoService.updateItems(requests));
+    }
+
+    @PostMapping("/batch/delete")
+    public ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> deleteItems(@RequestBody List<String> ids) {
+        return batchResponse(toDoService.deleteItems(ids));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<ToDo>> updateItem(
             @PathVariable String id,
@@ -107,8 +163,9 @@ public class ToDoController {
                 return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
                         .body(ApiResponse.success("The item is already marked as done.", todo));
             } else {
-                toDoService.markAsDone(id);
-                return ResponseEntity.ok(ApiResponse.success("Item successfully marked as done.", todo));
+                // The store may hand out copies, so the answer is the item as the update left it
+                ToDo updatedItem = toDoService.markAsDone(id).orElse(todo);
+                return ResponseEntity.ok(ApiResponse.success("Item successfully marked as done.", updatedItem));
             }
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -126,8 +183,8 @@ public class ToDoController {
                 return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
                         .body(ApiResponse.success("The item is already marked as undone.", todo));
             } else {
-                toDoService.markAsUndone(id);
-                return ResponseEntity.ok(ApiResponse.success("Item successfully marked as done.", todo));
+                ToDo updatedItem = toDoService.markAsUndone(id).orElse(todo);
+                return ResponseEntity.ok(ApiResponse.success("Item successfully marked as done.", updatedItem));
             }
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -147,12 +204,64 @@ public class ToDoController {
         }
     }
 
+    //Per item outcomes are in the results, 207 tells the client that some of them were not applied
+    private ResponseEntity<ApiResponse<List<BatchItemResultDTO>>> batchResponse(List<BatchItemResultDTO> results) {
+        long applied = results.stream().filter(BatchItemResultDTO::isApplied).count();
+        HttpStatus status = applied == results.size() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        String message = String.format("%d of %d items applied", applied, results.size());
+        return ResponseEntity.status(status)
+                .body(new ApiResponse<>(status.value(), message, results, results.size(), null));
+    }
+
     @GetMapping("/completion-stats")
     public ResponseEntity<Map<String, String>> getCompletionStatistics() {
         Map<String, String> stats = toDoService.getCompletionStats();
         return ResponseEntity.ok(stats);
     }
 
+    @GetMapping("/completion-stats/percentiles")
+    public ResponseEntity<Map<String, Map<String, CompletionTimeStatsDTO>>> getCompletionPercentiles() {
+        return ResponseEntity.ok(toDoService.getCompletionPercentiles());
+    }
+
+    @GetMapping("/due/overdue")
+    public ResponseEntity<ApiResponse<List<ToDo>>> getOverdueItems(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return dueItemsResponse("Overdue items retrieved successfully", toDoService.getOverdueItems(limit));
+    }
+
+    @GetMapping("/due/today")
+    public ResponseEntity<ApiResponse<List<ToDo>>> getItemsDueToday(
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return dueItemsResponse("Items due today retrieved successfully", toDoService.getItemsDueToday(limit));
+    }
+
+    @GetMapping("/due/soon")
+    public ResponseEntity<ApiResponse<List<ToDo>>> getItemsDueSoon(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(defaultValue = "100") int limit
+    ) {
+        return dueItemsResponse("Items due soon retrieved successfully", toDoService.getItemsDueWithin(days, limit));
+    }
+
+    //Counts for a calendar view, per day by default or per week with unit=week
+    @GetMapping("/due/calendar")
+    public ResponseEntity<ApiResponse<List<DueDateCountDTO>>> getDueDateCalendar(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String unit
+    ) {
+        List<DueDateCountDTO> calendar = toDoService.getDueDateCalendar(from, to, unit);
+        return ResponseEntity.ok(ApiResponse.success("Calendar retrieved successfully", calendar));
+    }
+
+    //The total counts every match, the list stops at the limit
+    private ResponseEntity<ApiResponse<List<ToDo>>> dueItemsResponse(String message, ToDoPage dueItems) {
+        return ResponseEntity.ok(ApiResponse.successWithTotalItems(message, dueItems.items(), dueItems.totalItems()));
+    }
+
 
 
 }
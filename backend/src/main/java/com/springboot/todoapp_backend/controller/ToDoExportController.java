@@ -0,0 +1,64 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.service.ToDoService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/todos")
+public class ToDoExportController {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ToDoService toDoService;
+
+    // Writing through one generator, the writer must not flush the response after every item
+    private final ObjectWriter itemWriter;
+
+    public ToDoExportController(ToDoService toDoService, ObjectMapper objectMapper) {
+        this.toDoService = toDoService;
+        this.itemWriter = objectMapper.writerFor(ToDo.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    //Every matching item as one JSON object per line, written while the store is walked
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) ToDo.Priority priority,
+            @RequestParam(required = false) Boolean isDone
+    ) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = itemWriter.createGenerator(outputStream)) {
+                // The servlet container owns the response stream, and lines replace the default space between values
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                toDoService.forEachItem(text, priority, isDone, todo -> {
+                    try {
+                        itemWriter.writeValue(generator, todo);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+}
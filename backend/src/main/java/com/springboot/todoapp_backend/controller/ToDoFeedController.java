@@ -0,0 +1,58 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.springboot.todoapp_backend.service.ToDoChangeFeed;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/todos")
+public class ToDoFeedController {
+
+    // Browsers reconnect on their own with Last-Event-ID, so streams are recycled now and then
+    private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final ToDoChangeFeed changeFeed;
+
+    public ToDoFeedController(ToDoChangeFeed changeFeed) {
+        this.changeFeed = changeFeed;
+    }
+
+    //Server-Sent Events with the changed items, resuming after the sequence in Last-Event-ID or since when given.
+    //An open stream does not hold a request thread, and is ended when the client falls too far behind
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId
+    ) {
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        Runnable unsubscribe = changeFeed.subscribe(lastEventId != null ? lastEventId : since,
+                event -> emitter.send(toSse(event)), emitter::complete);
+        emitter.onCompletion(unsubscribe);
+        emitter.onTimeout(unsubscribe);
+        emitter.onError(ex -> unsubscribe.run());
+        return emitter;
+    }
+
+    private static SseEmitter.SseEventBuilder toSse(ToDoChangeFeed.Event event) {
+        return switch (event.type()) {
+            case CHANGES -> SseEmitter.event()
+                    .id(Long.toString(event.sequence()))
+                    .name("changes")
+                    .data(event.data(), MediaType.APPLICATION_JSON);
+            case RESET -> SseEmitter.event()
+                    .id(Long.toString(event.sequence()))
+                    .name("reset")
+                    .data(Long.toString(event.sequence()));
+            case HEARTBEAT -> SseEmitter.event().comment("heartbeat");
+        };
+    }
+}
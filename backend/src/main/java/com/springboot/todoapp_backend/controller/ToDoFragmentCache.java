@@ -0,0 +1,99 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoChangeListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//The JSON of single items, so list pages are put together from bytes encoded once instead of serializing every item
+//of every page again after each write. Changes drop the item's entry, and an entry is only used while the item still
+//equals the copy it was encoded from, so items mutated in place or replicated without a change event never get a
+//stale fragment
+public class ToDoFragmentCache implements ToDoChangeListener {
+
+    // Upper bound on cached items, the cache starts over once it is reached
+    private static final int MAX_FRAGMENTS = 1 << 17;
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+
+    public ToDoFragmentCache(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void onChange(ToDoChange change) {
+        fragments.remove(change.item().getId());
+    }
+
+    //The items as a JSON array body, written by Jackson from the cached fragments
+    public JsonSerializable items(List<ToDo> items) {
+        Fragment[] encoded = new Fragment[items.size()];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = fragment(items.get(i));
+        }
+        return new Fragments(encoded);
+    }
+
+    public int size() {
+        return fragments.size();
+    }
+
+    //The cached fragment while the item has not changed since it was encoded, a new one otherwise
+    private Fragment fragment(ToDo item) {
+        Fragment cached = fragments.get(item.getId());
+        if (cached != null && cached.item().equals(item)) {
+            return cached;
+        }
+        // Copied before encoding, the item may be changed in place while it is
+        ToDo copy = new ToDo(item.getId(), item.getText(), item.getDueDate(), item.isDone(), item.getDoneDate(),
+                item.getPriority(), item.getCreationDate());
+        Fragment fragment;
+        try {
+            fragment = new Fragment(copy, new SerializedString(objectMapper.writeValueAsString(copy)));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        if (fragments.size() >= MAX_FRAGMENTS) {
+            fragments.clear();
+        }
+        fragments.put(copy.getId(), fragment);
+        return fragment;
+    }
+
+    private record Fragments(Fragment[] fragments) implements JsonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider serializers) throws IOException {
+            generator.writeStartArray(fragments, fragments.length);
+            for (Fragment fragment : fragments) {
+                generator.writeRawValue(fragment.json());
+            }
+            generator.writeEndArray();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider serializers, TypeSerializer typeSerializer)
+                throws IOException {
+            serialize(generator, serializers);
+        }
+    }
+
+    //Encoded item and the copy it was encoded from. SerializedString keeps the UTF-8 bytes once they are first
+    //written, and Jackson copies them as is into the output
+    private record Fragment(ToDo item, SerializedString json) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.dtos.ImportResultDTO;
+import com.springboot.todoapp_backend.service.ToDoImporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping("/todos")
+public class ToDoImportController {
+
+    private final ToDoImporter toDoImporter;
+
+    public ToDoImportController(ToDoImporter toDoImporter) {
+        this.toDoImporter = toDoImporter;
+    }
+
+    //Creates an item per NDJSON or CSV line, reading the body as it arrives instead of buffering it
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/ndjson", "text/csv"})
+    public ResponseEntity<ApiResponse<ImportResultDTO>> importItems(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body
+    ) throws IOException {
+        ImportResultDTO result = toDoImporter.importItems(body, ToDoImporter.Format.of(contentType));
+        HttpStatus status = result.getRejected() == 0 ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        String message = String.format("%d items imported, %d rejected", result.getImported(), result.getRejected());
+        return ResponseEntity.status(status)
+                .body(new ApiResponse<>(status.value(), message, result, null, null));
+    }
+}
@@ -0,0 +1,162 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.Gzip;
+import com.springboot.todoapp_backend.Utilities.ProtobufCodec;
+import com.springboot.todoapp_backend.Utilities.WireFormat;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.service.ToDoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+//Serialized list responses keyed by the request, its wire format and the store version they were computed at. A
+//version only ever maps to one state of the store, so entries never go stale, they just stop being asked for. JSON
+//pages are put together from the cached JSON of their items, and large pages are gzipped once for every client
+//that accepts it
+@Component
+public class ToDoPageCache {
+
+    // Upper bound on cached pages, free text filters would otherwise grow the cache forever
+    private static final int MAX_CACHED_PAGES = 1024;
+
+    // Smaller bodies fit a packet or two, compressing them gains next to nothing
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+
+    private static final CachedPage NO_CONTENT = new CachedPage(new byte[0], false);
+
+    // Distinguishes versions handed out before a restart, an in-memory store starts counting from 0 again
+    private static final String EPOCH = Long.toHexString(System.currentTimeMillis());
+
+    // Jackson mapper per format, Protobuf has none
+    private final Map<WireFormat, ObjectMapper> mappers = new EnumMap<>(WireFormat.class);
+
+    private final ToDoFragmentCache fragments;
+
+    private final Map<PageKey, Entry> pages = new ConcurrentHashMap<>();
+
+    // Newest version seen, pages of older versions are dropped once a newer one is cached
+    private volatile long latestVersion = -1;
+
+    //Fragments of changed items are dropped as the changes happen
+    @Autowired
+    public ToDoPageCache(ObjectMapper objectMapper, ToDoService toDoService) {
+        this(objectMapper);
+        toDoService.addChangeListener(fragments);
+    }
+
+    public ToDoPageCache(ObjectMapper objectMapper) {
+        fragments = new ToDoFragmentCache(objectMapper);
+        for (WireFormat format : WireFormat.values()) {
+            if (format != WireFormat.PROTOBUF) {
+                mappers.put(format, format.mapper(objectMapper));
+            }
+        }
+    }
+
+    //Strong validator for a response computed at the given version
+    public static String etag(long version) {
+        return "\"" + EPOCH + "-" + version + "\"";
+    }
+
+    //Same for the response in the given format, JSON keeps the plain version
+    public static String etag(long version, WireFormat format) {
+        return etag(version, format, false);
+    }
+
+    //Same for the response to clients that accept gzip, which get another representation when it is large enough
+    public static String etag(long version, WireFormat format, boolean gzip) {
+        if (format.etagSuffix() == null && !gzip) {
+            return etag(version);
+        }
+        return "\"" + EPOCH + "-" + version + (format.etagSuffix() == null ? "" : "-" + format.etagSuffix())
+                + (gzip ? "-gzip" : "") + "\"";
+    }
+
+    //The cached encoding of the page, or the body computed and encoded now in the format of the key, gzipped when
+    //the client accepts it and the page is large enough to gain from it. Empty when the body is null, which stands
+    //for an empty page
+    public CachedPage page(PageKey key, boolean gzip, Supplier<Object> body) {
+        Entry entry = pages.get(key);
+        if (entry == null) {
+            entry = new Entry(serialize(body.get(), key.format()));
+            if (key.version() > latestVersion) {
+                latestVersion = key.version();
+                pages.clear();
+            }
+            if (key.version() == latestVersion) {
+                if (pages.size() >= MAX_CACHED_PAGES) {
+                    pages.clear();
+                }
+                pages.put(key, entry);
+            }
+        }
+        return gzip ? entry.gzipped() : entry.identity;
+    }
+
+    public int size() {
+        return pages.size();
+    }
+
+    public int fragmentCount() {
+        return fragments.size();
+    }
+
+    private CachedPage serialize(Object body, WireFormat format) {
+        if (body == null) {
+            return NO_CONTENT;
+        }
+        if (format == WireFormat.PROTOBUF) {
+            return new CachedPage(ProtobufCodec.encode(body), false);
+        }
+        if (format == WireFormat.JSON && body instanceof ApiResponse<?> response && response.getData() instanceof List<?> list
+                && !list.isEmpty() && list.get(0) instanceof ToDo) {
+            @SuppressWarnings("unchecked")
+            List<ToDo> items = (List<ToDo>) list;
+            body = new ApiResponse<>(response.getStatus(), response.getMessage(), fragments.items(items),
+                    response.getTotalItems(), response.getNextCursor());
+        }
+        try {
+            return new CachedPage(mappers.get(format).writeValueAsBytes(body), false);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    //A response body and whether it is gzipped
+    public record CachedPage(byte[] body, boolean gzipped) {
+    }
+
+    //The body of a page and its gzip encoding, made on the first request that accepts it
+    private static final class Entry {
+
+        private final CachedPage identity;
+        private volatile CachedPage gzipped;
+
+        Entry(CachedPage identity) {
+            this.identity = identity;
+        }
+
+        CachedPage gzipped() {
+            CachedPage page = gzipped;
+            if (page == null) {
+                byte[] body = identity.body();
+                page = body.length < MIN_COMPRESSED_SIZE ? identity : new CachedPage(Gzip.compress(body), true);
+                gzipped = page;
+            }
+            return page;
+        }
+    }
+
+    public record PageKey(String text, ToDo.Priority priority, Boolean isDone, int page, String cursor,
+                          String sortBy, String order, WireFormat format, long version) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.springboot.todoapp_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.springboot.todoapp_backend.model.ToDo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResultDTO {
+
+    //Position of the item in the request array
+    private int index;
+
+    private String id;
+
+    private Status status;
+
+    private String message;
+
+    private ToDo item;
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, INVALID, NOT_FOUND
+    }
+
+    public static BatchItemResultDTO applied(int index, Status status, ToDo item) {
+        return new BatchItemResultDTO(index, item.getId(), status, null, status == Status.DELETED ? null : item);
+    }
+
+    public static BatchItemResultDTO rejected(int index, String id, Status status, String message) {
+        return new BatchItemResultDTO(index, id, status, message, null);
+    }
+
+    public boolean isApplied() {
+        return status != Status.INVALID && status != Status.NOT_FOUND;
+    }
+}
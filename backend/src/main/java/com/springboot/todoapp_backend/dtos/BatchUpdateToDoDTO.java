@@ -0,0 +1,21 @@
+package com.springboot.todoapp_backend.dtos;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public class BatchUpdateToDoDTO extends UpdateToDoDTO {
+
+    @NotBlank(message = "The id of the item to update is required")
+    private String id;
+
+    public BatchUpdateToDoDTO(String id, String text, ToDo.Priority priority, String dueDate) {
+        super(text, priority, dueDate);
+        this.id = id;
+    }
+}
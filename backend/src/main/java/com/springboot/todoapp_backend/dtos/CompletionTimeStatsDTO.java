@@ -0,0 +1,21 @@
+package com.springboot.todoapp_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CompletionTimeStatsDTO {
+
+    private long count;
+
+    private String p50;
+
+    private String p90;
+
+    private String p99;
+
+    private String max;
+}
@@ -0,0 +1,20 @@
+package com.springboot.todoapp_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+//Items due in one calendar cell, a day or the week starting on the date
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DueDateCountDTO {
+
+    private LocalDate date;
+
+    private int total;
+
+    private int undone;
+}
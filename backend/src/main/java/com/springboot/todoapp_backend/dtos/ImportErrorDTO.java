@@ -0,0 +1,16 @@
+package com.springboot.todoapp_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+
+    //One based line number in the uploaded file
+    private long line;
+
+    private String message;
+}
@@ -0,0 +1,21 @@
+package com.springboot.todoapp_backend.dtos;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ImportResultDTO {
+
+    private long linesRead;
+
+    private long imported;
+
+    private long rejected;
+
+    //Only the first errors are listed, rejected has the full count
+    private List<ImportErrorDTO> errors = new ArrayList<>();
+}
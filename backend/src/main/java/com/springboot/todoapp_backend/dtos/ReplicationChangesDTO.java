@@ -0,0 +1,19 @@
+package com.springboot.todoapp_backend.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//Changes from the leader's log in sequence order, with the leader's latest sequence so a follower knows whether
+//it has caught up
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationChangesDTO {
+
+    private long sequence;
+
+    private List<ToDoChangeDTO> changes;
+}
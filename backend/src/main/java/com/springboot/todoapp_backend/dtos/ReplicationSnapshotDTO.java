@@ -0,0 +1,19 @@
+package com.springboot.todoapp_backend.dtos;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+//Every item on the leader in insertion order, followers continue with the changes after the sequence
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplicationSnapshotDTO {
+
+    private long sequence;
+
+    private List<ToDo> items;
+}
@@ -0,0 +1,30 @@
+package com.springboot.todoapp_backend.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ToDoChangeDTO {
+
+    private long sequence;
+
+    private ToDoChange.Type type;
+
+    private String id;
+
+    //State of the item after the change, left out for deletions
+    private ToDo item;
+
+    public static ToDoChangeDTO of(ToDoChange change) {
+        ToDo item = change.item();
+        return new ToDoChangeDTO(change.sequence(), change.type(), item.getId(),
+                change.type() == ToDoChange.Type.DELETED ? null : item);
+    }
+}
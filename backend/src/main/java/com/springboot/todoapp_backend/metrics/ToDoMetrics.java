@@ -0,0 +1,76 @@
+package com.springboot.todoapp_backend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+//Service level meters. Every meter is registered up front, so recording is a map lookup and an atomic add
+@Component
+public class ToDoMetrics {
+
+    public enum Operation {
+        GET_ITEM("getItem"),
+        GET_FILTERED_LIST("getFilteredList"),
+        GET_TOTAL_ITEMS("getTotalItems"),
+        ADD_ITEM("addItem"),
+        ADD_ITEMS("addItems"),
+        UPDATE_ITEM("updateItem"),
+        UPDATE_ITEMS("updateItems"),
+        MARK_AS_DONE("markAsDone"),
+        MARK_AS_UNDONE("markAsUndone"),
+        DELETE_ITEM("deleteItem"),
+        DELETE_ITEMS("deleteItems"),
+        GET_COMPLETION_STATS("getCompletionStats"),
+        GET_DUE_ITEMS("getDueItems"),
+        GET_DUE_DATE_CALENDAR("getDueDateCalendar");
+
+        private final String method;
+
+        Operation(String method) {
+            this.method = method;
+        }
+    }
+
+    private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+    private final DistributionSummary listMatches;
+    private final DistributionSummary listSelectivity;
+
+    public ToDoMetrics(MeterRegistry registry) {
+        for (Operation operation : Operation.values()) {
+            timers.put(operation, Timer.builder("todo.service.calls")
+                    .description("Time spent in the service methods")
+                    .tag("method", operation.method)
+                    .publishPercentileHistogram()
+                    .register(registry));
+        }
+        listMatches = DistributionSummary.builder("todo.list.matches")
+                .description("Items matching the filter of a list request")
+                .baseUnit("items")
+                .publishPercentileHistogram()
+                .register(registry);
+        listSelectivity = DistributionSummary.builder("todo.list.selectivity")
+                .description("Share of the stored items matching the filter of a list request")
+                .baseUnit("percent")
+                .serviceLevelObjectives(0.1, 1, 5, 10, 25, 50, 75, 100)
+                .register(registry);
+    }
+
+    //Start time to pass to record, taken from the same clock
+    public long start() {
+        return System.nanoTime();
+    }
+
+    public void record(Operation operation, long start) {
+        timers.get(operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordList(int matches, int storeSize) {
+        listMatches.record(matches);
+        listSelectivity.record(storeSize == 0 ? 0 : matches * 100.0 / storeSize);
+    }
+}
@@ -0,0 +1,67 @@
+package com.springboot.todoapp_backend.metrics;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.StoreStats;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoFilter;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+//Store size and index gauges, read when the metrics are scraped, and a counter of the changes by type
+@Component
+public class ToDoStoreMetrics implements MeterBinder {
+
+    private final ToDoStore store;
+
+    public ToDoStoreMetrics(ToDoStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.store.items", store, ToDoStore::size)
+                .description("Items in the store")
+                .register(registry);
+        for (ToDo.Priority priority : ToDo.Priority.values()) {
+            ToDoFilter filter = new ToDoFilter(null, priority, null);
+            Gauge.builder("todo.store.items.priority", store, s -> s.count(filter))
+                    .description("Items in the store by priority")
+                    .tag("priority", priority.name())
+                    .register(registry);
+        }
+        statsGauge(registry, "todo.store.items.done", "Items marked as done", StoreStats::doneItems);
+        statsGauge(registry, "todo.store.slots", "Slots in use, live items plus holes", StoreStats::slots);
+        statsGauge(registry, "todo.store.holes", "Deleted slots waiting for compaction", StoreStats::holes);
+        statsGauge(registry, "todo.store.compactions", "Compactions since startup", StoreStats::generation);
+        statsGauge(registry, "todo.index.due.date.buckets", "Distinct due dates indexed", StoreStats::dueDateBuckets);
+        statsGauge(registry, "todo.index.text.grams", "Distinct trigrams in the text index", StoreStats::textGrams);
+        statsGauge(registry, "todo.store.cached.counts", "Filter counts currently cached", StoreStats::cachedCounts);
+        Gauge.builder("todo.store.sequence", store, ToDoStore::sequence)
+                .description("Sequence of the last change applied")
+                .register(registry);
+
+        Map<ToDoChange.Type, Counter> changes = new EnumMap<>(ToDoChange.Type.class);
+        for (ToDoChange.Type type : ToDoChange.Type.values()) {
+            changes.put(type, Counter.builder("todo.store.changes")
+                    .description("Changes applied to the store")
+                    .tag("type", type.name())
+                    .register(registry));
+        }
+        store.addListener(change -> changes.get(change.type()).increment());
+    }
+
+    private void statsGauge(MeterRegistry registry, String name, String description,
+                            ToDoubleFunction<StoreStats> value) {
+        Gauge.builder(name, store, s -> value.applyAsDouble(s.stats()))
+                .description(description)
+                .register(registry);
+    }
+}
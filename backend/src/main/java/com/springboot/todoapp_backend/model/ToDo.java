@@ -7,7 +7,6 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 @Data
 @NoArgsConstructor
@@ -15,7 +14,8 @@ import java.util.UUID;
 @Builder
 public class ToDo {
 
-    private final String id = UUID.randomUUID().toString();
+    @Builder.Default
+    private final String id = ToDoIds.next();
 
     private String text;
 
@@ -0,0 +1,91 @@
+package com.springboot.todoapp_backend.model;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//Ids of new items. Every strategy hands out strings, so ids made by one strategy stay valid after switching to
+//another and the /todos/{id} routes never see the difference
+public final class ToDoIds {
+
+    public enum Strategy {
+        //Random version 4 UUIDs from SecureRandom, what items have always used
+        RANDOM_UUID,
+        //Version 7 UUIDs: the creation millisecond followed by random bits from ThreadLocalRandom, so new ids sort
+        //after older ones and creating one never waits on SecureRandom
+        UUID_V7,
+        //Positive 64-bit numbers made of the creation millisecond, the node and a per millisecond sequence,
+        //written in decimal. Unique as long as every node runs with its own node number
+        SNOWFLAKE
+    }
+
+    // Ids are picked when the strategy is configured at startup, before any item is created
+    private static volatile Supplier<String> generator = ToDoIds::randomUuid;
+
+    private ToDoIds() {
+    }
+
+    public static String next() {
+        return generator.get();
+    }
+
+    public static void use(Strategy strategy, int node) {
+        generator = switch (strategy) {
+            case RANDOM_UUID -> ToDoIds::randomUuid;
+            case UUID_V7 -> ToDoIds::uuidV7;
+            case SNOWFLAKE -> new Snowflake(node)::next;
+        };
+    }
+
+    static String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    static String uuidV7() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high = (System.currentTimeMillis() << 16) | 0x7000L | (random.nextInt() & 0x0FFF);
+        long low = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(high, low).toString();
+    }
+
+    //41 bits of milliseconds since 2024-01-01, 10 bits of node and 12 bits of sequence. Once a millisecond's
+    //4096 ids are used up, or the clock steps back, ids carry on from the next millisecond so they keep increasing
+    static final class Snowflake {
+
+        static final int MAX_NODE = 1023;
+
+        private static final long EPOCH_MILLIS = 1_704_067_200_000L;
+        private static final int SEQUENCE_BITS = 12;
+        private static final int NODE_BITS = 10;
+
+        private final long node;
+
+        // Milliseconds since the epoch shifted left by the sequence bits, plus the sequence, of the last id
+        private final AtomicLong last = new AtomicLong();
+
+        Snowflake(int node) {
+            if (node < 0 || node > MAX_NODE) {
+                throw new IllegalArgumentException("The node must be between 0 and " + MAX_NODE + ", not " + node);
+            }
+            this.node = node;
+        }
+
+        String next() {
+            return Long.toString(nextLong());
+        }
+
+        long nextLong() {
+            long now = (System.currentTimeMillis() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            while (true) {
+                long previous = last.get();
+                long next = now > previous ? now : previous + 1;
+                if (last.compareAndSet(previous, next)) {
+                    long millis = next >>> SEQUENCE_BITS;
+                    long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                    return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | sequence;
+                }
+            }
+        }
+    }
+}
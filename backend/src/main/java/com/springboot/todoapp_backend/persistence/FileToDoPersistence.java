@@ -0,0 +1,127 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.store.StoreSnapshot;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoChangeListener;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+//Write-ahead log plus periodic snapshots in one directory. Startup loads the newest snapshot and replays the log after it
+public class FileToDoPersistence implements ToDoPersistence, ToDoChangeListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileToDoPersistence.class);
+
+    private final Path directory;
+    private final boolean syncWrites;
+    private final long flushIntervalMillis;
+    private final long snapshotEvery;
+
+    private final AtomicLong changesSinceSnapshot = new AtomicLong();
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+    private final ExecutorService snapshotExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ToDoStore store;
+    private WriteAheadLog log;
+
+    public FileToDoPersistence(Path directory, boolean syncWrites, long flushIntervalMillis, long snapshotEvery) {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @Override
+    public void open(ToDoStore store) {
+        try {
+            Files.createDirectories(directory);
+            long start = System.nanoTime();
+            long snapshotSequence = SnapshotFiles.loadLatest(directory, store::replay);
+            long replayed = WriteAheadLog.replay(directory, snapshotSequence, store::replay);
+            logger.info("Recovered {} items from {} (snapshot {} plus {} log records) in {} ms",
+                    store.size(), directory, snapshotSequence, replayed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            this.store = store;
+            this.log = new WriteAheadLog(directory, store.sequence() + 1, syncWrites, flushIntervalMillis);
+            store.addListener(this);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not recover the items stored in " + directory, ex);
+        }
+    }
+
+    @Override
+    public void onChange(ToDoChange change) {
+        log.append(change);
+        if (changesSinceSnapshot.incrementAndGet() >= snapshotEvery && snapshotRunning.compareAndSet(false, true)) {
+            snapshotExecutor.execute(() -> {
+                try {
+                    snapshot();
+                } catch (IOException ex) {
+                    logger.error("Writing a snapshot to {} failed", directory, ex);
+                } finally {
+                    snapshotRunning.set(false);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void flush() {
+        if (syncWrites) {
+            log.awaitDurable();
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> flushAsync() {
+        return syncWrites ? log.whenDurable() : CompletableFuture.completedFuture(null);
+    }
+
+    //Writes the current items and drops the log segments and snapshots the new one makes redundant
+    public void snapshot() throws IOException {
+        changesSinceSnapshot.set(0);
+        StoreSnapshot snapshot = store.snapshot();
+        log.rotate();
+        long start = System.nanoTime();
+        SnapshotFiles.write(directory, snapshot);
+        SnapshotFiles.deleteOlderThan(directory, snapshot.sequence());
+        WriteAheadLog.deleteCovered(directory, snapshot.sequence());
+        logger.info("Snapshot of {} items at sequence {} written in {} ms", snapshot.items().size(),
+                snapshot.sequence(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Override
+    public void close() {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (log == null) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException ex) {
+            logger.error("Writing the shutdown snapshot to {} failed, the log still has every change", directory, ex);
+        }
+        log.close();
+    }
+}
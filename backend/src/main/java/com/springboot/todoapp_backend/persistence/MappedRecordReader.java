@@ -0,0 +1,45 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.store.ToDoChange;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+//Reads framed records through read-only memory mappings, remapping the next window when a record crosses its end
+class MappedRecordReader {
+
+    private static final long WINDOW_BYTES = 256L << 20;
+
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    MappedRecordReader(FileChannel channel, long start) throws IOException {
+        this.channel = channel;
+        this.size = channel.size();
+        this.windowStart = start;
+    }
+
+    //Absolute file position of the next record
+    long position() {
+        return window == null ? windowStart : windowStart + window.position();
+    }
+
+    //Next record, null at the end of the file or at the first torn or corrupt record
+    ToDoChange next() throws IOException {
+        if (window == null || !ToDoRecordCodec.hasRecord(window)) {
+            long position = position();
+            if (position >= size) {
+                return null;
+            }
+            windowStart = position;
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, size - position));
+            if (!ToDoRecordCodec.hasRecord(window)) {
+                return null;
+            }
+        }
+        return ToDoRecordCodec.read(window);
+    }
+}
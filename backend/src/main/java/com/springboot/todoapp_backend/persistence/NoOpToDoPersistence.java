@@ -0,0 +1,19 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.store.ToDoStore;
+
+//Keeps the items in memory only, which is how the app behaves when no persistence directory is configured
+public class NoOpToDoPersistence implements ToDoPersistence {
+
+    @Override
+    public void open(ToDoStore store) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
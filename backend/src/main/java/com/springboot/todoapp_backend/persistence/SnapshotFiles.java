@@ -0,0 +1,114 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.StoreSnapshot;
+import com.springboot.todoapp_backend.store.ToDoChange;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+//Compacted copies of the whole store written through memory mappings, named after the sequence they reflect
+final class SnapshotFiles {
+
+    private static final Pattern FILE_NAME = Pattern.compile("snapshot-(\\d{20})\\.dat");
+    private static final int MAGIC = 0x54444F53;
+    private static final int FORMAT = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES;
+    private static final long WINDOW_BYTES = 8L << 20;
+
+    private SnapshotFiles() {
+    }
+
+    //Items may be read while they are being changed, the log records after the snapshot sequence repair them on replay
+    static Path write(Path directory, StoreSnapshot snapshot) throws IOException {
+        Path target = directory.resolve(String.format("snapshot-%020d.dat", snapshot.sequence()));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        ByteBuffer record = ByteBuffer.allocate(512);
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long windowStart = 0;
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_BYTES);
+            window.putInt(MAGIC).putInt(FORMAT).putLong(snapshot.sequence()).putLong(snapshot.items().size());
+            for (ToDo item : snapshot.items()) {
+                record.clear();
+                record = ToDoRecordCodec.write(record, new ToDoChange(snapshot.sequence(), ToDoChange.Type.CREATED, item));
+                record.flip();
+                if (window.remaining() < record.remaining()) {
+                    window.force();
+                    windowStart += window.position();
+                    window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_BYTES);
+                }
+                window.put(record);
+            }
+            window.force();
+            // Mapping a window grows the file to its end, the unused rest of the last one is cut off
+            channel.truncate(windowStart + window.position());
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return target;
+    }
+
+    //Feeds the items of the newest snapshot to the consumer and returns its sequence, 0 when there is none
+    static long loadLatest(Path directory, Consumer<ToDoChange> consumer) throws IOException {
+        List<Path> snapshots = list(directory);
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path latest = snapshots.get(snapshots.size() - 1);
+        try (FileChannel channel = FileChannel.open(latest, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC || header.getInt() != FORMAT) {
+                throw new IOException("Not a snapshot file: " + latest);
+            }
+            long sequence = header.getLong();
+            long count = header.getLong();
+            MappedRecordReader reader = new MappedRecordReader(channel, HEADER_BYTES);
+            for (long i = 0; i < count; i++) {
+                ToDoChange change = reader.next();
+                if (change == null) {
+                    throw new IOException("Snapshot " + latest + " is corrupt after " + i + " items");
+                }
+                consumer.accept(change);
+            }
+            return sequence;
+        }
+    }
+
+    static void deleteOlderThan(Path directory, long sequence) throws IOException {
+        for (Path snapshot : list(directory)) {
+            if (sequenceOf(snapshot) < sequence) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> FILE_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .forEach(snapshots::add);
+        }
+        return snapshots;
+    }
+
+    private static long sequenceOf(Path snapshot) {
+        Matcher matcher = FILE_NAME.matcher(snapshot.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
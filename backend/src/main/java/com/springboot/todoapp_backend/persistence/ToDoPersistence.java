@@ -0,0 +1,23 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.store.ToDoStore;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface ToDoPersistence extends AutoCloseable {
+
+    //Loads what was stored before into the empty store, then records every change the store publishes
+    void open(ToDoStore store);
+
+    //Returns once every change published so far is durable
+    void flush();
+
+    //Completes once every change published so far is durable, without blocking the caller
+    default CompletableFuture<Void> flushAsync() {
+        flush();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    void close();
+}
@@ -0,0 +1,151 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoChange;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.zip.CRC32C;
+
+//Binary layout shared by the log and the snapshots: [payload length][CRC32C of payload][payload]
+final class ToDoRecordCodec {
+
+    static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    // Anything longer is treated as a torn or corrupt record
+    static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private static final long NULL_DATE = Long.MIN_VALUE;
+
+    private static final ToDoChange.Type[] TYPES = ToDoChange.Type.values();
+    private static final ToDo.Priority[] PRIORITIES = ToDo.Priority.values();
+
+    private ToDoRecordCodec() {
+    }
+
+    //Writes the framed record at the buffer position, returning a bigger buffer when it did not fit
+    static ByteBuffer write(ByteBuffer buffer, ToDoChange change) {
+        while (true) {
+            int start = buffer.position();
+            try {
+                buffer.position(start + HEADER_BYTES);
+                writePayload(buffer, change);
+                int length = buffer.position() - start - HEADER_BYTES;
+                CRC32C crc = new CRC32C();
+                crc.update(buffer.duplicate().position(start + HEADER_BYTES).limit(buffer.position()));
+                buffer.putInt(start, length);
+                buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+                return buffer;
+            } catch (BufferOverflowException | IllegalArgumentException ex) {
+                ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, 256));
+                bigger.put(buffer.flip().limit(start));
+                buffer = bigger;
+            }
+        }
+    }
+
+    //Whether a complete framed record starts at the buffer position
+    static boolean hasRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES) {
+            return false;
+        }
+        int length = buffer.getInt(buffer.position());
+        return length > 0 && length <= MAX_PAYLOAD_BYTES && buffer.remaining() >= HEADER_BYTES + length;
+    }
+
+    //Reads the record at the buffer position, null when its checksum does not match
+    static ToDoChange read(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        ByteBuffer payload = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return readPayload(payload);
+    }
+
+    private static void writePayload(ByteBuffer buffer, ToDoChange change) {
+        ToDo item = change.item();
+        buffer.putLong(change.sequence());
+        buffer.put((byte) change.type().ordinal());
+        putString(buffer, item.getId());
+        if (change.type() == ToDoChange.Type.DELETED) {
+            return;
+        }
+        putString(buffer, item.getText());
+        buffer.put((byte) (item.getPriority() == null ? -1 : item.getPriority().ordinal()));
+        buffer.putLong(item.getDueDate() == null ? NULL_DATE : item.getDueDate().toEpochDay());
+        buffer.put((byte) (item.isDone() ? 1 : 0));
+        putDateTime(buffer, item.getDoneDate());
+        putDateTime(buffer, item.getCreationDate());
+    }
+
+    private static ToDoChange readPayload(ByteBuffer buffer) {
+        long sequence = buffer.getLong();
+        ToDoChange.Type type = TYPES[buffer.get()];
+        String id = getString(buffer);
+        if (type == ToDoChange.Type.DELETED) {
+            return new ToDoChange(sequence, type, ToDo.builder().id(id).build());
+        }
+        String text = getString(buffer);
+        byte priority = buffer.get();
+        long dueDate = buffer.getLong();
+        boolean isDone = buffer.get() == 1;
+        LocalDateTime doneDate = getDateTime(buffer);
+        LocalDateTime creationDate = getDateTime(buffer);
+        ToDo item = ToDo.builder()
+                .id(id)
+                .text(text)
+                .priority(priority < 0 ? null : PRIORITIES[priority])
+                .dueDate(dueDate == NULL_DATE ? null : LocalDate.ofEpochDay(dueDate))
+                .isDone(isDone)
+                .doneDate(doneDate)
+                .creationDate(creationDate)
+                .build();
+        return new ToDoChange(sequence, type, item);
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putDateTime(ByteBuffer buffer, LocalDateTime value) {
+        if (value == null) {
+            buffer.putLong(NULL_DATE);
+            return;
+        }
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+
+    private static LocalDateTime getDateTime(ByteBuffer buffer) {
+        long seconds = buffer.getLong();
+        if (seconds == NULL_DATE) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(seconds, buffer.getInt(), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,294 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.store.ToDoChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+//Append-only change log split in segments named after their first sequence. Appends only fill a buffer,
+//a single writer thread drains it so every write and fsync covers all the changes that piled up meanwhile
+class WriteAheadLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(WriteAheadLog.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("wal-(\\d{20})\\.log");
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final boolean syncWrites;
+    private final long flushIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition hasWork = lock.newCondition();
+    private final Condition written = lock.newCondition();
+
+    // Both buffers and the fields below are guarded by lock, the writer swaps pending and writing
+    private ByteBuffer pending = ByteBuffer.allocate(BUFFER_BYTES);
+    private ByteBuffer writing = ByteBuffer.allocate(BUFFER_BYTES);
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean rotateRequested = false;
+    private boolean closed = false;
+    private IOException failure;
+    // Futures waiting for a sequence to be durable, in the increasing sequence order they were added in
+    private final Deque<DurableWaiter> waiters = new ArrayDeque<>();
+
+    // Only used by the writer thread
+    private FileChannel channel;
+
+    private final Thread writer;
+
+    WriteAheadLog(Path directory, long nextSequence, boolean syncWrites, long flushIntervalMillis) throws IOException {
+        this.directory = directory;
+        this.syncWrites = syncWrites;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.appendedSequence = nextSequence - 1;
+        this.durableSequence = nextSequence - 1;
+        this.channel = openSegment(nextSequence);
+        this.writer = new Thread(this::runWriter, "todo-wal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    //Feeds every record after the given sequence to the consumer, returns how many were replayed
+    static long replay(Path directory, long afterSequence, Consumer<ToDoChange> consumer) throws IOException {
+        long replayed = 0;
+        for (Path segment : segments(directory)) {
+            try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+                MappedRecordReader reader = new MappedRecordReader(channel, 0);
+                for (ToDoChange change = reader.next(); change != null; change = reader.next()) {
+                    if (change.sequence() > afterSequence) {
+                        consumer.accept(change);
+                        replayed++;
+                    }
+                }
+                if (reader.position() < channel.size()) {
+                    logger.warn("Ignoring the torn tail of {} after byte {}", segment, reader.position());
+                }
+            }
+        }
+        return replayed;
+    }
+
+    //Removes the segments whose records are all covered by a snapshot of the given sequence
+    static void deleteCovered(Path directory, long sequence) throws IOException {
+        List<Path> segments = segments(directory);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1)) - 1 <= sequence) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    void append(ToDoChange change) {
+        lock.lock();
+        try {
+            if (failure != null) {
+                throw new UncheckedIOException("The change log can no longer be written", failure);
+            }
+            pending = ToDoRecordCodec.write(pending, change);
+            appendedSequence = change.sequence();
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Waits until every change appended before the call is on disk
+    void awaitDurable() {
+        lock.lock();
+        try {
+            long target = appendedSequence;
+            while (durableSequence < target) {
+                if (failure != null) {
+                    throw new UncheckedIOException("The change log can no longer be written", failure);
+                }
+                written.awaitUninterruptibly();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Completes once every change appended before the call is on disk, for callers that must not block
+    CompletableFuture<Void> whenDurable() {
+        lock.lock();
+        try {
+            if (failure != null) {
+                return CompletableFuture.failedFuture(new UncheckedIOException("The change log can no longer be written", failure));
+            }
+            if (durableSequence >= appendedSequence) {
+                return CompletableFuture.completedFuture(null);
+            }
+            CompletableFuture<Void> durable = new CompletableFuture<>();
+            waiters.addLast(new DurableWaiter(appendedSequence, durable));
+            return durable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Starts a new segment after the changes appended so far, so older segments can be dropped by a snapshot
+    void rotate() {
+        lock.lock();
+        try {
+            rotateRequested = true;
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            hasWork.signal();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runWriter() {
+        long lastForce = System.nanoTime();
+        boolean unforced = false;
+        while (true) {
+            ByteBuffer batch;
+            long batchSequence;
+            boolean rotate;
+            boolean stop;
+            lock.lock();
+            try {
+                while (pending.position() == 0 && !rotateRequested && !closed) {
+                    if (!unforced) {
+                        hasWork.awaitUninterruptibly();
+                        continue;
+                    }
+                    long waitNanos = flushIntervalNanos - (System.nanoTime() - lastForce);
+                    if (waitNanos <= 0) {
+                        break;
+                    }
+                    hasWork.awaitNanos(waitNanos);
+                }
+                batch = pending;
+                pending = writing;
+                pending.clear();
+                writing = batch;
+                batch.flip();
+                batchSequence = appendedSequence;
+                rotate = rotateRequested;
+                rotateRequested = false;
+                stop = closed;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                unforced |= batch.hasRemaining();
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                if (unforced && (syncWrites || rotate || stop || System.nanoTime() - lastForce >= flushIntervalNanos)) {
+                    channel.force(false);
+                    lastForce = System.nanoTime();
+                    unforced = false;
+                }
+                if (!unforced) {
+                    markDurable(batchSequence);
+                }
+                if (rotate) {
+                    channel.close();
+                    channel = openSegment(batchSequence + 1);
+                }
+                if (stop) {
+                    channel.close();
+                    return;
+                }
+            } catch (IOException ex) {
+                logger.error("Writing the change log failed", ex);
+                List<DurableWaiter> failed;
+                lock.lock();
+                try {
+                    failure = ex;
+                    written.signalAll();
+                    failed = new ArrayList<>(waiters);
+                    waiters.clear();
+                } finally {
+                    lock.unlock();
+                }
+                UncheckedIOException cause = new UncheckedIOException("The change log can no longer be written", ex);
+                failed.forEach(waiter -> waiter.future().completeExceptionally(cause));
+                return;
+            }
+        }
+    }
+
+    private void markDurable(long sequence) {
+        List<DurableWaiter> ready = new ArrayList<>();
+        lock.lock();
+        try {
+            durableSequence = Math.max(durableSequence, sequence);
+            written.signalAll();
+            while (!waiters.isEmpty() && waiters.peekFirst().sequence() <= durableSequence) {
+                ready.add(waiters.pollFirst());
+            }
+        } finally {
+            lock.unlock();
+        }
+        // Completed outside the lock, the callbacks may run right here on the writer thread
+        ready.forEach(waiter -> waiter.future().complete(null));
+    }
+
+    //A segment for this start sequence can only hold a torn record from a crash, so it is started over
+    private FileChannel openSegment(long firstSequence) throws IOException {
+        Path segment = directory.resolve(String.format("wal-%020d.log", firstSequence));
+        return FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    private record DurableWaiter(long sequence, CompletableFuture<Void> future) {
+    }
+
+    private static List<Path> segments(Path directory) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .forEach(segments::add);
+        }
+        return segments;
+    }
+
+    private static long firstSequence(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        return matcher.matches() ? Long.parseLong(matcher.group(1)) : -1;
+    }
+}
@@ -0,0 +1,155 @@
+package com.springboot.todoapp_backend.service;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Running per priority totals and histograms of the time it took to complete the done items
+public class CompletionStatsTracker {
+
+    // Hourly histograms cover the last day, older completions only stay in the all time ones
+    public static final int HOURLY_WINDOWS = 24;
+
+    private final Map<ToDo.Priority, LongAdder> totalMillis = new EnumMap<>(ToDo.Priority.class);
+    private final Map<ToDo.Priority, LongAdder> doneItems = new EnumMap<>(ToDo.Priority.class);
+    private final Map<ToDo.Priority, CompletionTimeHistogram> allTime = new EnumMap<>(ToDo.Priority.class);
+    private final HourWindow[] hours = new HourWindow[HOURLY_WINDOWS];
+
+    public CompletionStatsTracker() {
+        for (ToDo.Priority priority : ToDo.Priority.values()) {
+            totalMillis.put(priority, new LongAdder());
+            doneItems.put(priority, new LongAdder());
+            allTime.put(priority, new CompletionTimeHistogram());
+        }
+        for (int i = 0; i < HOURLY_WINDOWS; i++) {
+            hours[i] = new HourWindow();
+        }
+    }
+
+    //Counts the item if it is done
+    public void add(ToDo item) {
+        if (isCompleted(item)) {
+            long millis = completionMillis(item);
+            totalMillis.get(item.getPriority()).add(millis);
+            doneItems.get(item.getPriority()).increment();
+            allTime.get(item.getPriority()).record(millis);
+            updateWindow(hourOf(item.getDoneDate()), item.getPriority(), millis, true);
+        }
+    }
+
+    //Takes back what add counted for the item in its current state
+    public void remove(ToDo item) {
+        if (isCompleted(item)) {
+            long millis = completionMillis(item);
+            totalMillis.get(item.getPriority()).add(-millis);
+            doneItems.get(item.getPriority()).decrement();
+            allTime.get(item.getPriority()).remove(millis);
+            updateWindow(hourOf(item.getDoneDate()), item.getPriority(), millis, false);
+        }
+    }
+
+    //Merged histogram counts of every item done so far
+    public long[] allTimeCounts(ToDo.Priority priority) {
+        long[] counts = CompletionTimeHistogram.emptyCounts();
+        allTime.get(priority).addTo(counts);
+        return counts;
+    }
+
+    //Merged histogram counts of the items completed during the current hour and the previous hoursBack - 1
+    public long[] recentCounts(ToDo.Priority priority, int hoursBack) {
+        long[] counts = CompletionTimeHistogram.emptyCounts();
+        long currentHour = hourOf(LocalDateTime.now());
+        for (HourWindow window : hours) {
+            window.lock.readLock().lock();
+            try {
+                if (window.hour <= currentHour && window.hour > currentHour - hoursBack) {
+                    window.histograms.get(priority).addTo(counts);
+                }
+            } finally {
+                window.lock.readLock().unlock();
+            }
+        }
+        return counts;
+    }
+
+    public long averageMillis(ToDo.Priority priority) {
+        long count = doneItems.get(priority).sum();
+        return count > 0 ? totalMillis.get(priority).sum() / count : 0;
+    }
+
+    public long averageMillis() {
+        long millis = 0;
+        long count = 0;
+        for (ToDo.Priority priority : ToDo.Priority.values()) {
+            millis += totalMillis.get(priority).sum();
+            count += doneItems.get(priority).sum();
+        }
+        return count > 0 ? millis / count : 0;
+    }
+
+    //Records or takes back a sample in the window of its hour, rotating out a window that held an older hour when
+    //adding. The hour is checked under the window's read lock, so a rotation cannot clear and relabel the window
+    //between the check and the update
+    private void updateWindow(long hour, ToDo.Priority priority, long millis, boolean add) {
+        HourWindow window = hours[(int) Math.floorMod(hour, HOURLY_WINDOWS)];
+        while (true) {
+            window.lock.readLock().lock();
+            try {
+                if (window.hour == hour) {
+                    if (add) {
+                        window.histograms.get(priority).record(millis);
+                    } else {
+                        window.histograms.get(priority).remove(millis);
+                    }
+                    return;
+                }
+                if (!add || window.hour > hour || hour <= hourOf(LocalDateTime.now()) - HOURLY_WINDOWS) {
+                    return;
+                }
+            } finally {
+                window.lock.readLock().unlock();
+            }
+            window.lock.writeLock().lock();
+            try {
+                if (window.hour < hour) {
+                    window.histograms.values().forEach(CompletionTimeHistogram::clear);
+                    window.hour = hour;
+                }
+            } finally {
+                window.lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private static long hourOf(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / 3600;
+    }
+
+    private static boolean isCompleted(ToDo item) {
+        return item.isDone() && item.getDoneDate() != null && item.getCreationDate() != null
+                && item.getPriority() != null;
+    }
+
+    private static long completionMillis(ToDo item) {
+        return Duration.between(item.getCreationDate(), item.getDoneDate()).toMillis();
+    }
+
+    private static final class HourWindow {
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        // Guarded by lock, samples are recorded under the read lock and the window is cleared under the write lock
+        private long hour = Long.MIN_VALUE;
+        private final Map<ToDo.Priority, CompletionTimeHistogram> histograms = new EnumMap<>(ToDo.Priority.class);
+
+        private HourWindow() {
+            for (ToDo.Priority priority : ToDo.Priority.values()) {
+                histograms.put(priority, new CompletionTimeHistogram());
+            }
+        }
+    }
+}
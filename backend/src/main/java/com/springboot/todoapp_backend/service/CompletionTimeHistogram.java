@@ -0,0 +1,91 @@
+package com.springboot.todoapp_backend.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//Constant memory log-linear histogram of millisecond durations, exact below 128ms and within 1/64 above
+public class CompletionTimeHistogram {
+
+    private static final int LINEAR_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int FIRST_EXPONENT = 7;
+    // 2^43 ms is well past two centuries, longer durations are clamped into the last bucket
+    private static final int LAST_EXPONENT = 42;
+    private static final long MAX_TRACKABLE = (1L << (LAST_EXPONENT + 1)) - 1;
+
+    static final int BUCKETS = LINEAR_BUCKETS + (LAST_EXPONENT - FIRST_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long millis) {
+        counts.incrementAndGet(bucketOf(millis));
+    }
+
+    //Takes back a value recorded earlier
+    public void remove(long millis) {
+        counts.decrementAndGet(bucketOf(millis));
+    }
+
+    public void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    //Adds this histogram's counts into the given array, which is how histograms are merged
+    public void addTo(long[] merged) {
+        for (int i = 0; i < BUCKETS; i++) {
+            merged[i] += counts.get(i);
+        }
+    }
+
+    public static long[] emptyCounts() {
+        return new long[BUCKETS];
+    }
+
+    public static long totalCount(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    //Value at the given quantile (0 to 1] of merged counts, 0 when there are no values
+    public static long valueAtQuantile(long[] counts, double quantile) {
+        long total = totalCount(counts);
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return valueOf(bucket);
+            }
+        }
+        return valueOf(BUCKETS - 1);
+    }
+
+    static int bucketOf(long millis) {
+        long value = Math.min(Math.max(millis, 0), MAX_TRACKABLE);
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    //Middle of the range of values that share the bucket
+    static long valueOf(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_EXPONENT;
+        int subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + subBucket) * width + width / 2;
+    }
+}
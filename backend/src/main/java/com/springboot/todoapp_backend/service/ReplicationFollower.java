@@ -0,0 +1,141 @@
+package com.springboot.todoapp_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.todoapp_backend.dtos.ReplicationChangesDTO;
+import com.springboot.todoapp_backend.dtos.ReplicationSnapshotDTO;
+import com.springboot.todoapp_backend.dtos.ToDoChangeDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+//Keeps this node a copy of the leader: loads its snapshot, then long polls its change log and applies every change
+//in order. Reads are served from the copy, and lag() tells how far behind the leader it may be
+@Service
+@ConditionalOnProperty(name = "todoapp.replication.role", havingValue = "follower")
+public class ReplicationFollower implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationFollower.class);
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Pause before retrying once the leader could not be reached
+    private static final long RETRY_MILLIS = 1000;
+
+    private static final int GONE = 410;
+
+    private final ToDoService toDoService;
+    private final ObjectMapper objectMapper;
+    private final String leaderUrl;
+    private final long pollWaitMillis;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    // Position in the leader's log, -1 until a snapshot is loaded. Only used by the replication thread
+    private long leaderSequence = -1;
+
+    // When the last request that left this node caught up with the leader was sent, 0 before the first one
+    private volatile long caughtUpNanos = 0;
+
+    private final Thread replicator;
+
+    public ReplicationFollower(
+            ToDoService toDoService,
+            ObjectMapper objectMapper,
+            @Value("${todoapp.replication.leader-url}") String leaderUrl,
+            @Value("${todoapp.replication.poll-wait-ms:1000}") long pollWaitMillis
+    ) {
+        this.toDoService = toDoService;
+        this.objectMapper = objectMapper;
+        this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+        this.pollWaitMillis = pollWaitMillis;
+        this.replicator = new Thread(this::run, "todo-replication");
+        this.replicator.setDaemon(true);
+        this.replicator.start();
+    }
+
+    public String leaderUrl() {
+        return leaderUrl;
+    }
+
+    //Upper bound on how much older the copy is than the leader, Long.MAX_VALUE until it first caught up
+    public long lagMillis() {
+        long caughtUp = caughtUpNanos;
+        return caughtUp == 0 ? Long.MAX_VALUE : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - caughtUp);
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (leaderSequence < 0) {
+                    loadSnapshot();
+                }
+                poll();
+            } catch (InterruptedException ex) {
+                return;
+            } catch (IOException | RuntimeException ex) {
+                logger.warn("Replicating from {} failed, retrying: {}", leaderUrl, ex.toString());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void loadSnapshot() throws IOException, InterruptedException {
+        long sent = System.nanoTime();
+        HttpResponse<byte[]> response = get("/replication/snapshot");
+        ReplicationSnapshotDTO snapshot = objectMapper.readValue(response.body(), ReplicationSnapshotDTO.class);
+        toDoService.loadReplicated(snapshot.getItems());
+        leaderSequence = snapshot.getSequence();
+        caughtUpNanos = sent;
+        logger.info("Loaded {} items from the snapshot of {} at sequence {}", snapshot.getItems().size(), leaderUrl,
+                leaderSequence);
+    }
+
+    private void poll() throws IOException, InterruptedException {
+        long sent = System.nanoTime();
+        HttpResponse<byte[]> response = get("/replication/changes?after=" + leaderSequence + "&limit=" + BATCH_SIZE
+                + "&waitMs=" + pollWaitMillis);
+        if (response.statusCode() == GONE) {
+            logger.info("{} no longer keeps the changes after {}, loading a new snapshot", leaderUrl, leaderSequence);
+            leaderSequence = -1;
+            return;
+        }
+        ReplicationChangesDTO changes = objectMapper.readValue(response.body(), ReplicationChangesDTO.class);
+        for (ToDoChangeDTO change : changes.getChanges()) {
+            toDoService.applyReplicated(change.getType(), change.getId(), change.getItem());
+            leaderSequence = change.getSequence();
+        }
+        if (leaderSequence >= changes.getSequence()) {
+            caughtUpNanos = sent;
+        }
+    }
+
+    private HttpResponse<byte[]> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(leaderUrl + path))
+                .timeout(Duration.ofMillis(pollWaitMillis + 10000))
+                .GET()
+                .build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200 && response.statusCode() != GONE) {
+            throw new IOException("GET " + path + " answered " + response.statusCode());
+        }
+        return response;
+    }
+
+    @Override
+    public void close() {
+        replicator.interrupt();
+    }
+}
@@ -0,0 +1,100 @@
+package com.springboot.todoapp_backend.service;
+
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+//The leader's recent changes in sequence order, what followers tail to stay in step. Every published change comes
+//through here with the next sequence, so the kept ones sit in a ring indexed by sequence
+@Service
+@ConditionalOnProperty(name = "todoapp.replication.role", havingValue = "leader")
+public class ReplicationLog implements ToDoChangeListener {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+
+    // Guarded by lock
+    private final ToDoChange[] ring;
+    private long firstSequence;
+    private long lastSequence;
+
+    public ReplicationLog(ToDoService toDoService, @Value("${todoapp.replication.log-size:100000}") int logSize) {
+        if (logSize < 1) {
+            throw new IllegalArgumentException("The replication log has to keep at least one change");
+        }
+        this.ring = new ToDoChange[logSize];
+        // Listening before the version is read, so no change falls between the two. Changes up to that version,
+        // including the ones recovered at startup that were never published, reach followers through a snapshot
+        lock.lock();
+        try {
+            toDoService.addChangeListener(this);
+            this.firstSequence = toDoService.version() + 1;
+            this.lastSequence = firstSequence - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onChange(ToDoChange change) {
+        // Copied here, the item is changed in place by later writes while followers read the ring
+        ToDoChange snapshot = change.snapshot();
+        lock.lock();
+        try {
+            if (snapshot.sequence() < firstSequence) {
+                return;
+            }
+            ring[index(snapshot.sequence())] = snapshot;
+            lastSequence = snapshot.sequence();
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long sequence() {
+        lock.lock();
+        try {
+            return lastSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //Up to limit changes after the given sequence, waiting up to the given time for one when there are none yet.
+    //Null when the follower cannot continue from there: the changes after it are no longer kept, or it is ahead of
+    //this log because the leader started over
+    public List<ToDoChange> changesAfter(long sequence, int limit, long waitMillis) throws InterruptedException {
+        lock.lock();
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(waitMillis);
+            while (sequence == lastSequence && remaining > 0) {
+                remaining = appended.awaitNanos(remaining);
+            }
+            long oldestKept = Math.max(firstSequence, lastSequence - ring.length + 1);
+            if (sequence > lastSequence || sequence < oldestKept - 1) {
+                return null;
+            }
+            long to = Math.min(lastSequence, sequence + limit);
+            List<ToDoChange> changes = new ArrayList<>((int) (to - sequence));
+            for (long next = sequence + 1; next <= to; next++) {
+                changes.add(ring[index(next)]);
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence % ring.length);
+    }
+}
@@ -0,0 +1,326 @@
+package com.springboot.todoapp_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.todoapp_backend.dtos.ToDoChangeDTO;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoChangeListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Pushes the changes made through ToDoService to subscribed clients. Changes are collected as they happen and sent
+//once per interval, one delta per changed item, so a burst of writes costs every subscriber a single event.
+//The event is serialized once and shared by all subscribers, and nothing is serialized while nobody listens.
+//Each subscriber has a bounded queue of events written by a small shared pool of sender threads, so a slow client
+//does not hold up the dispatcher, and one that falls a whole queue behind is dropped to resume from its last event id
+@Service
+public class ToDoChangeFeed implements ToDoChangeListener, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoChangeFeed.class);
+
+    // Idle subscribers get a heartbeat this often, which is also how closed connections are noticed
+    private static final long HEARTBEAT_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    // Events waiting for a subscriber, one more drops it
+    static final int MAX_QUEUED_EVENTS = 256;
+
+    public enum EventType {
+        //A JSON array of ToDoChangeDTO, the event id is the sequence of the last one
+        CHANGES,
+        //The requested resume point is no longer kept, the client has to reload the list
+        RESET,
+        HEARTBEAT
+    }
+
+    public record Event(EventType type, long sequence, String data) {
+    }
+
+    //Sends one event to a client, throwing when the client is gone so it gets unsubscribed
+    public interface Subscriber {
+        void send(Event event) throws IOException;
+    }
+
+    private final ObjectMapper objectMapper;
+    private final int historySize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock: changes since the last dispatch, and the dispatched ones kept to resume from
+    private List<ToDoChange> pending = new ArrayList<>();
+    private final Deque<ToDoChange> history = new ArrayDeque<>();
+    private long dispatchedSequence;
+
+    private final List<Connection> subscribers = new CopyOnWriteArrayList<>();
+
+    // Only used by the dispatcher thread
+    private long lastHeartbeat = System.nanoTime();
+
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "todo-change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Runs the sends. Its threads are shared by every subscriber, each of which has at most one send queued or running
+    private final Executor sender;
+
+    @Autowired
+    public ToDoChangeFeed(
+            ToDoService toDoService,
+            ObjectMapper objectMapper,
+            @Value("${todoapp.feed.coalesce-ms:100}") long coalesceMillis,
+            @Value("${todoapp.feed.history:10000}") int historySize,
+            @Value("${todoapp.feed.sender-threads:0}") int senderThreads
+    ) {
+        this(toDoService, objectMapper, coalesceMillis, historySize, Executors.newFixedThreadPool(
+                senderThreads > 0 ? senderThreads : Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "todo-change-feed-sender");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    //Package-private so tests can send on the calling thread
+    ToDoChangeFeed(ToDoService toDoService, ObjectMapper objectMapper, long coalesceMillis, int historySize,
+                   Executor sender) {
+        this.objectMapper = objectMapper;
+        this.historySize = historySize;
+        this.sender = sender;
+        this.dispatchedSequence = toDoService.version();
+        toDoService.addChangeListener(this);
+        dispatcher.scheduleWithFixedDelay(this::dispatch, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onChange(ToDoChange change) {
+        // Copied, the item is changed in place by later writes before the change is serialized
+        ToDoChange snapshot = change.snapshot();
+        lock.lock();
+        try {
+            pending.add(snapshot);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Runnable subscribe(Long afterSequence, Subscriber subscriber) {
+        return subscribe(afterSequence, subscriber, () -> {
+        });
+    }
+
+    //Sends the changes after the given sequence, or a reset when they are no longer kept, then every later change.
+    //A null sequence starts with the next change. onDropped runs once the feed stops sending because the subscriber
+    //failed or fell too far behind, not after the returned unsubscribe
+    public Runnable subscribe(Long afterSequence, Subscriber subscriber, Runnable onDropped) {
+        Connection connection = new Connection(subscriber, onDropped);
+        lock.lock();
+        try {
+            if (afterSequence != null && afterSequence != dispatchedSequence) {
+                long oldestKept = history.isEmpty() ? dispatchedSequence + 1 : history.peekFirst().sequence();
+                if (afterSequence < oldestKept - 1 || afterSequence > dispatchedSequence) {
+                    connection.offer(new Event(EventType.RESET, dispatchedSequence, null));
+                } else {
+                    List<ToDoChange> missed = new ArrayList<>();
+                    for (ToDoChange change : history) {
+                        if (change.sequence() > afterSequence) {
+                            missed.add(change);
+                        }
+                    }
+                    connection.offer(changesEvent(missed));
+                }
+            }
+            // Added while holding the lock, so the next dispatch starts exactly where the catch-up above ended
+            subscribers.add(connection);
+        } finally {
+            lock.unlock();
+        }
+        return () -> connection.close(false);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    //Runs on the dispatcher thread, package-private so tests can dispatch without waiting
+    void dispatch() {
+        try {
+            List<ToDoChange> batch;
+            List<Connection> targets;
+            lock.lock();
+            try {
+                batch = pending;
+                if (!batch.isEmpty()) {
+                    pending = new ArrayList<>();
+                    for (ToDoChange change : batch) {
+                        history.addLast(change);
+                    }
+                    while (history.size() > historySize) {
+                        history.pollFirst();
+                    }
+                    dispatchedSequence = batch.get(batch.size() - 1).sequence();
+                }
+                targets = List.copyOf(subscribers);
+            } finally {
+                lock.unlock();
+            }
+
+            if (targets.isEmpty()) {
+                return;
+            }
+            Event event;
+            if (!batch.isEmpty()) {
+                event = changesEvent(batch);
+            } else if (System.nanoTime() - lastHeartbeat >= HEARTBEAT_NANOS) {
+                event = new Event(EventType.HEARTBEAT, dispatchedSequence, null);
+            } else {
+                return;
+            }
+            lastHeartbeat = System.nanoTime();
+            for (Connection connection : targets) {
+                connection.offer(event);
+            }
+        } catch (RuntimeException ex) {
+            // An exception would cancel the scheduled dispatch for good
+            logger.error("Dispatching the change feed failed", ex);
+        }
+    }
+
+    //One delta per item, carrying its last change, in the order of those last changes
+    private Event changesEvent(List<ToDoChange> changes) {
+        Map<String, ToDoChange> latest = new LinkedHashMap<>();
+        for (ToDoChange change : changes) {
+            String id = change.item().getId();
+            latest.remove(id);
+            latest.put(id, change);
+        }
+        List<ToDoChangeDTO> deltas = new ArrayList<>(latest.size());
+        long sequence = dispatchedSequence;
+        for (ToDoChange change : latest.values()) {
+            deltas.add(ToDoChangeDTO.of(change));
+            sequence = change.sequence();
+        }
+        try {
+            return new Event(EventType.CHANGES, sequence, objectMapper.writeValueAsString(deltas));
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        dispatcher.shutdownNow();
+        if (sender instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    //A subscriber with the events it has not been sent yet. At most one send runs for it at a time, in queue order
+    private final class Connection {
+
+        private final Subscriber subscriber;
+        private final Runnable onDropped;
+
+        // Guarded by this
+        private final Deque<Event> queue = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closed;
+        private boolean notifyDropped;
+
+        Connection(Subscriber subscriber, Runnable onDropped) {
+            this.subscriber = subscriber;
+            this.onDropped = onDropped;
+        }
+
+        void offer(Event event) {
+            boolean full;
+            boolean start = false;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                full = queue.size() >= MAX_QUEUED_EVENTS;
+                if (!full) {
+                    queue.addLast(event);
+                    start = !sending;
+                    sending = true;
+                }
+            }
+            if (full) {
+                close(true);
+            } else if (start) {
+                sender.execute(this::send);
+            }
+        }
+
+        //Stops sending. The queued events are dropped, onDropped runs after a send in progress when notify is set
+        void close(boolean notify) {
+            boolean idle;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                notifyDropped = notify;
+                queue.clear();
+                idle = !sending;
+                sending = true;
+            }
+            subscribers.remove(this);
+            if (idle && notify) {
+                sender.execute(this::send);
+            }
+        }
+
+        private void send() {
+            while (true) {
+                Event event;
+                synchronized (this) {
+                    if (closed) {
+                        break;
+                    }
+                    event = queue.pollFirst();
+                    if (event == null) {
+                        sending = false;
+                        return;
+                    }
+                }
+                try {
+                    subscriber.send(event);
+                } catch (IOException | RuntimeException ex) {
+                    close(true);
+                }
+            }
+            boolean dropped;
+            synchronized (this) {
+                dropped = notifyDropped;
+                notifyDropped = false;
+            }
+            if (dropped) {
+                try {
+                    onDropped.run();
+                } catch (RuntimeException ex) {
+                    logger.warn("Closing a dropped change feed subscriber failed", ex);
+                }
+            }
+        }
+    }
+}
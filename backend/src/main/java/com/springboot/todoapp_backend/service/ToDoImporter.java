@@ -0,0 +1,258 @@
+package com.springboot.todoapp_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import com.springboot.todoapp_backend.dtos.BatchItemResultDTO;
+import com.springboot.todoapp_backend.dtos.ImportErrorDTO;
+import com.springboot.todoapp_backend.dtos.ImportResultDTO;
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+//Reads an upload line by line and stores it in fixed size batches, so memory stays bounded whatever the upload size.
+//Lines are capped as well, a longer one is skipped and reported like any other bad line.
+//Reading blocks while a batch is written, which in turn slows the client down through the connection
+@Service
+public class ToDoImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToDoImporter.class);
+
+    static final int BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    static final int MAX_LINE_CHARS = 16 * 1024;
+
+    private static final int READ_BUFFER_CHARS = 64 * 1024;
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format of(String contentType) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/ndjson")) {
+                return NDJSON;
+            }
+            throw new IllegalArgumentException("Unsupported import format, use application/x-ndjson or text/csv");
+        }
+    }
+
+    private final ToDoService toDoService;
+
+    private final ObjectReader itemReader;
+
+    public ToDoImporter(ToDoService toDoService, ObjectMapper objectMapper) {
+        this.toDoService = toDoService;
+        this.itemReader = objectMapper.readerFor(NewToDoDTO.class);
+    }
+
+    public ImportResultDTO importItems(InputStream input, Format format) throws IOException {
+        long start = System.nanoTime();
+        ImportResultDTO result = new ImportResultDTO();
+        List<NewToDoDTO> batch = new ArrayList<>(BATCH_SIZE);
+        long[] batchLines = new long[BATCH_SIZE];
+
+        LineReader reader = new LineReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        boolean firstRecord = true;
+        for (String line = reader.next(); line != null; line = reader.next()) {
+            lineNumber++;
+            if (reader.tooLong) {
+                firstRecord = false;
+                reject(result, lineNumber, String.format("The line is longer than %d characters", MAX_LINE_CHARS));
+                continue;
+            }
+            if (line.isBlank()) {
+                continue;
+            }
+            boolean header = firstRecord && format == Format.CSV && line.toLowerCase(Locale.ROOT).startsWith("text,");
+            firstRecord = false;
+            if (header) {
+                continue;
+            }
+            try {
+                batchLines[batch.size()] = lineNumber;
+                batch.add(format == Format.CSV ? parseCsv(line) : parseJson(line));
+            } catch (IllegalArgumentException ex) {
+                reject(result, lineNumber, ex.getMessage());
+            }
+            if (batch.size() == BATCH_SIZE) {
+                store(batch, batchLines, result);
+            }
+        }
+        store(batch, batchLines, result);
+        result.setLinesRead(lineNumber);
+        // Parse errors are found while reading and validation errors once their batch is stored
+        result.getErrors().sort(Comparator.comparingLong(ImportErrorDTO::getLine));
+
+        logger.info("Import finished: {} items imported, {} rejected, {} lines in {} ms", result.getImported(),
+                result.getRejected(), lineNumber, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return result;
+    }
+
+    private void store(List<NewToDoDTO> batch, long[] batchLines, ImportResultDTO result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<BatchItemResultDTO> results = toDoService.addItems(batch);
+        for (BatchItemResultDTO itemResult : results) {
+            if (itemResult.isApplied()) {
+                result.setImported(result.getImported() + 1);
+            } else {
+                reject(result, batchLines[itemResult.getIndex()], itemResult.getMessage());
+            }
+        }
+        batch.clear();
+    }
+
+    private void reject(ImportResultDTO result, long line, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new ImportErrorDTO(line, message));
+        }
+    }
+
+    private NewToDoDTO parseJson(String line) {
+        try {
+            return itemReader.readValue(line);
+        } catch (InvalidFormatException ex) {
+            if (ex.getTargetType() != null && ex.getTargetType().isEnum() && !ex.getPath().isEmpty()) {
+                throw new IllegalArgumentException(String.format("Invalid value for field '%s'. The accepted values are: %s",
+                        ex.getPath().get(0).getFieldName(), Arrays.toString(ex.getTargetType().getEnumConstants())));
+            }
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    //Columns are text, priority and dueDate; fields may be quoted, with "" standing for a quote inside them
+    private NewToDoDTO parseCsv(String line) {
+        List<String> fields = new ArrayList<>(3);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Invalid CSV: unterminated quoted field");
+        }
+        fields.add(field.toString());
+        if (fields.size() > 3) {
+            throw new IllegalArgumentException("Invalid CSV: expected the columns text, priority and dueDate");
+        }
+
+        String priority = fields.size() > 1 ? fields.get(1).trim() : "";
+        String dueDate = fields.size() > 2 ? fields.get(2).trim() : "";
+        return new NewToDoDTO(fields.get(0), priority.isEmpty() ? null : parsePriority(priority),
+                dueDate.isEmpty() ? null : dueDate);
+    }
+
+    //Lines ended by \n, \r or \r\n like BufferedReader.readLine, which keeps a line of any length in memory though.
+    //Only the first MAX_LINE_CHARS of a line are kept, a longer one is read as empty with tooLong set
+    private static final class LineReader {
+
+        private final Reader in;
+        private final char[] buffer = new char[READ_BUFFER_CHARS];
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+
+        private final StringBuilder line = new StringBuilder();
+        private boolean tooLong;
+
+        LineReader(Reader in) {
+            this.in = in;
+        }
+
+        //The next line without its end, null once the input is used up
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+            boolean started = false;
+            while (true) {
+                if (position == limit) {
+                    limit = Math.max(in.read(buffer), 0);
+                    position = 0;
+                    if (limit == 0) {
+                        return started ? line.toString() : null;
+                    }
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                started = true;
+                int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                append(start, position);
+                if (position < limit) {
+                    skipLineFeed = buffer[position] == '\r';
+                    position++;
+                    return line.toString();
+                }
+            }
+        }
+
+        private void append(int start, int end) {
+            if (tooLong) {
+                return;
+            }
+            if (line.length() + end - start > MAX_LINE_CHARS) {
+                tooLong = true;
+                line.setLength(0);
+            } else {
+                line.append(buffer, start, end - start);
+            }
+        }
+    }
+
+    private ToDo.Priority parsePriority(String value) {
+        try {
+            return ToDo.Priority.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(String.format("Invalid value for field 'priority'. The accepted values are: %s",
+                    Arrays.toString(ToDo.Priority.values())));
+        }
+    }
+}
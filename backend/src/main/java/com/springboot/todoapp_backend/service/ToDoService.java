@@ -1,38 +1,114 @@
 package com.springboot.todoapp_backend.service;
 
 import com.springboot.todoapp_backend.Utilities.Constants;
+import com.springboot.todoapp_backend.dtos.BatchItemResultDTO;
+import com.springboot.todoapp_backend.dtos.BatchUpdateToDoDTO;
+import com.springboot.todoapp_backend.dtos.CompletionTimeStatsDTO;
+import com.springboot.todoapp_backend.dtos.DueDateCountDTO;
 import com.springboot.todoapp_backend.dtos.NewToDoDTO;
 import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
+import com.springboot.todoapp_backend.metrics.ToDoMetrics;
 import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.ToDoPersistence;
+import com.springboot.todoapp_backend.store.DueDateCount;
+import com.springboot.todoapp_backend.store.StoreSnapshot;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoChangeListener;
+import com.springboot.todoapp_backend.store.ToDoFilter;
+import com.springboot.todoapp_backend.store.ToDoPage;
+import com.springboot.todoapp_backend.store.ToDoSort;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.DayOfWeek;
 import java.time.LocalDateTime;
-import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class ToDoService {
     private static final Logger logger = LoggerFactory.getLogger(ToDoService.class);
 
-    private final List<ToDo> toDoList;
+    private final ToDoStore toDoStore;
 
-    public ToDoService(){
-        this.toDoList = new ArrayList<>();
+    private final ToDoPersistence persistence;
+
+    private final Validator validator;
+
+    private final ToDoMetrics metrics;
+
+    private final CompletionStatsTracker completionStats = new CompletionStatsTracker();
+
+    public ToDoService(ToDoStore toDoStore, ToDoPersistence persistence, Validator validator, ToDoMetrics metrics){
+        this.toDoStore = toDoStore;
+        this.persistence = persistence;
+        this.validator = validator;
+        this.metrics = metrics;
+        persistence.open(toDoStore);
+        toDoStore.findAll().forEach(completionStats::add);
     }
 
     public Optional<ToDo> getItem(String id) {
-        Optional<ToDo> optional = Optional.empty();
-        for (ToDo item : toDoList){
-            if(item.getId().equals(id)){
-                optional = Optional.of(item);
-                return optional;
+        long start = metrics.start();
+        Optional<ToDo> item = toDoStore.findById(id);
+        metrics.record(ToDoMetrics.Operation.GET_ITEM, start);
+        return item;
+    }
+
+    //Bumped by every change to any item, so responses computed at the same version are identical
+    public long version() {
+        return toDoStore.sequence();
+    }
+
+    //Bumped by every change to the item
+    public long itemVersion(String id) {
+        return toDoStore.versionOf(id);
+    }
+
+    //Called with every change, in sequence order, while the store write lock is held
+    public void addChangeListener(ToDoChangeListener listener) {
+        toDoStore.addListener(listener);
+    }
+
+    //Every item with the sequence of the last change they reflect, what a follower starts replicating from
+    public StoreSnapshot snapshot() {
+        return toDoStore.snapshot();
+    }
+
+    //Makes the items the same as a leader's snapshot, in one batch so readers never see half of it
+    public void loadReplicated(List<ToDo> items) {
+        Set<String> ids = new HashSet<>();
+        items.forEach(item -> ids.add(item.getId()));
+        toDoStore.inBatch(() -> {
+            for (ToDo current : toDoStore.findAll()) {
+                if (!ids.contains(current.getId())) {
+                    applyReplicated(ToDoChange.Type.DELETED, current.getId(), current);
+                }
             }
+            items.forEach(item -> applyReplicated(ToDoChange.Type.UPDATED, item.getId(), item));
+            return null;
+        });
+    }
+
+    //Applies a change copied from a leader under the next sequence of this node, so versions and ETags keep
+    //increasing even when the leader starts over. Only the replication thread writes on a follower
+    public void applyReplicated(ToDoChange.Type type, String id, ToDo item) {
+        toDoStore.findById(id).ifPresent(completionStats::remove);
+        ToDo applied = type == ToDoChange.Type.DELETED ? ToDo.builder().id(id).build() : item;
+        toDoStore.replay(new ToDoChange(toDoStore.sequence() + 1, type, applied));
+        if (type != ToDoChange.Type.DELETED) {
+            completionStats.add(item);
         }
-        return optional;
     }
 
     public List<ToDo> getFilteredList(
@@ -43,20 +119,60 @@ public class ToDoService {
             String sortBy,
             String order
     ) {
+        return getFilteredPage(text, priority, isDone, page, sortBy, order).items();
+    }
+
+    public ToDoPage getFilteredPage(
+            String text,
+            ToDo.Priority priority,
+            Boolean isDone,
+            int page,
+            String sortBy,
+            String order
+    ) {
+        long start = metrics.start();
         int adjustedPage = page > 0 ? page - 1 : 0;
-        return toDoList.stream()
-                // Text filter
-                .filter(todo -> text == null || todo.getText().toLowerCase().contains(text.toLowerCase()))
-                // Priority filter
-                .filter(todo -> priority == null || todo.getPriority() == priority)
-                // Status filter
-                .filter(todo -> isDone == null || todo.isDone() == isDone)
-                // Sort by priority and/or dueDate
-                .sorted(getComparator(sortBy, order))
-                // Pagination
-                .skip((long) adjustedPage * Constants.PAGE_SIZE)
-                .limit(Constants.PAGE_SIZE)
-                .collect(Collectors.toList());
+        ToDoPage todoPage = toDoStore.findPage(
+                new ToDoFilter(text, priority, isDone),
+                ToDoSort.of(sortBy, order),
+                adjustedPage * Constants.PAGE_SIZE,
+                Constants.PAGE_SIZE
+        );
+        return recordList(todoPage, start);
+    }
+
+    public ToDoPage getFilteredPage(
+            String text,
+            ToDo.Priority priority,
+            Boolean isDone,
+            String cursor,
+            String sortBy,
+            String order
+    ) {
+        long start = metrics.start();
+        ToDoPage todoPage = toDoStore.findPageAfter(
+                new ToDoFilter(text, priority, isDone),
+                ToDoSort.of(sortBy, order),
+                cursor,
+                Constants.PAGE_SIZE
+        );
+        return recordList(todoPage, start);
+    }
+
+    private ToDoPage recordList(ToDoPage todoPage, long start) {
+        metrics.record(ToDoMetrics.Operation.GET_FILTERED_LIST, start);
+        metrics.recordList(todoPage.totalItems(), toDoStore.size());
+        return todoPage;
+    }
+
+    //Streams every matching item in insertion order, for exports that must not build the whole list in memory
+    public void forEachItem(String text, ToDo.Priority priority, Boolean isDone, Consumer<ToDo> action) {
+        toDoStore.forEachMatching(new ToDoFilter(text, priority, isDone), action);
+    }
+
+    //Same items as forEachItem, pulled a chunk at a time so a reactive stream only reads as fast as it is consumed
+    public Iterator<List<ToDo>> itemChunks(String text, ToDo.Priority priority, Boolean isDone) {
+        return toDoStore.matchingChunks(new ToDoFilter(text, priority, isDone));
     }
 
     public Integer getTotalItems(
@@ -65,173 +181,416 @@ public class ToDoService {
             Boolean isDone,
             String sortBy
     ) {
-        List<ToDo> filteredTodos = toDoList.stream()
-                .filter(todo -> text == null || todo.getText().toLowerCase().contains(text.toLowerCase()))
-                .filter(todo -> priority == null || todo.getPriority() == priority)
-                .filter(todo -> isDone == null || todo.isDone() == isDone)
-                .sorted(getComparator(sortBy, "desc"))
-                .toList();
+        long start = metrics.start();
+        int total = toDoStore.count(new ToDoFilter(text, priority, isDone));
+        metrics.record(ToDoMetrics.Operation.GET_TOTAL_ITEMS, start);
+        return total;
+    }
+
+    //Undone items whose due date has passed, the earliest first
+    public ToDoPage getOverdueItems(int limit) {
+        return getDueItems(null, LocalDate.now().minusDays(1), limit);
+    }
+
+    public ToDoPage getItemsDueToday(int limit) {
+        LocalDate today = LocalDate.now();
+        return getDueItems(today, today, limit);
+    }
 
-        return filteredTodos.size();
+    //Undone items due from today up to the given number of days ahead, 0 meaning today only
+    public ToDoPage getItemsDueWithin(int days, int limit) {
+        if (days < 0 || days > Constants.MAX_DUE_DATE_DAYS) {
+            throw new IllegalArgumentException(
+                    String.format("The number of days must be between 0 and %d", Constants.MAX_DUE_DATE_DAYS));
+        }
+        LocalDate today = LocalDate.now();
+        return getDueItems(today, today.plusDays(days), limit);
     }
 
-    private Comparator<ToDo> getComparator(String sortBy, String order) {
-        Comparator<ToDo> comparator;
+    private ToDoPage getDueItems(LocalDate from, LocalDate to, int limit) {
+        if (limit < 1 || limit > Constants.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("The limit must be between 1 and %d", Constants.MAX_BATCH_SIZE));
+        }
+        long start = metrics.start();
+        ToDoPage dueItems = toDoStore.findUndoneDue(from, to, limit);
+        metrics.record(ToDoMetrics.Operation.GET_DUE_ITEMS, start);
+        return dueItems;
+    }
 
-        if (sortBy != null && sortBy.equalsIgnoreCase("duedate")) {
-            comparator = Comparator.comparing(ToDo::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()));
+    //Items due per day, or per week starting on Monday, between the two dates. Only days and weeks with items are
+    //listed, and a week cut by the range only counts the days inside it
+    public List<DueDateCountDTO> getDueDateCalendar(String fromDate, String toDate, String unit) {
+        LocalDate from = fromDate == null ? null : LocalDate.parse(fromDate);
+        LocalDate to = toDate == null ? null : LocalDate.parse(toDate);
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new IllegalArgumentException("The calendar needs a 'from' date on or before the 'to' date");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= Constants.MAX_DUE_DATE_DAYS) {
+            throw new IllegalArgumentException(
+                    String.format("The calendar covers at most %d days", Constants.MAX_DUE_DATE_DAYS));
+        }
+        boolean byWeek;
+        if (unit == null || unit.equalsIgnoreCase("day")) {
+            byWeek = false;
+        } else if (unit.equalsIgnoreCase("week")) {
+            byWeek = true;
         } else {
-            comparator = Comparator.comparing(ToDo::getPriority);
+            throw new IllegalArgumentException("Invalid value for 'unit'. Accepted values are 'day' or 'week'");
         }
 
-        if ("asc".equalsIgnoreCase(order)) {
-            comparator = comparator.reversed();
+        long start = metrics.start();
+        List<DueDateCountDTO> calendar = new ArrayList<>();
+        for (DueDateCount day : toDoStore.dueDateCounts(from, to)) {
+            LocalDate date = byWeek ? day.date().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)) : day.date();
+            DueDateCountDTO last = calendar.isEmpty() ? null : calendar.get(calendar.size() - 1);
+            if (last != null && last.getDate().equals(date)) {
+                last.setTotal(last.getTotal() + day.total());
+                last.setUndone(last.getUndone() + day.undone());
+            } else {
+                calendar.add(new DueDateCountDTO(date, day.total(), day.undone()));
+            }
         }
-        //If sortBy is null || priority || invalid
-        return comparator;
+        metrics.record(ToDoMetrics.Operation.GET_DUE_DATE_CALENDAR, start);
+        return calendar;
     }
 
+    //Every mutation comes in two forms: the plain one returns once the change is durable, the Async one applies
+    //the change right away and completes when it is durable, so reactive callers never block on the log
+
     public ToDo addItem(NewToDoDTO newToDo){
-        LocalDate dueDate = Optional.ofNullable(newToDo.getDueDate())
-                .filter(d -> !d.isEmpty())
-                .map(LocalDate::parse)
-                .orElse(null);
+        long start = metrics.start();
+        return awaitDurable(storeNewItem(newToDo), ToDoMetrics.Operation.ADD_ITEM, start);
+    }
 
-        if (dueDate != null && dueDate.isBefore(LocalDate.now())) {
-            throw new IllegalArgumentException("The due date must be today or a future date.");
-        }
+    public CompletableFuture<ToDo> addItemAsync(NewToDoDTO newToDo) {
+        long start = metrics.start();
+        return whenDurable(storeNewItem(newToDo), ToDoMetrics.Operation.ADD_ITEM, start);
+    }
 
-        ToDo newItem = ToDo.builder()
-                .text(newToDo.getText())
-                .priority(newToDo.getPriority())
-                .dueDate(dueDate)
-                .build();
+    private ToDo storeNewItem(NewToDoDTO newToDo) {
+        ToDo newItem = toNewItem(newToDo);
 
-        toDoList.add(newItem);
+        toDoStore.save(newItem);
 
         logger.info("New item created with ID: {}", newItem.getId());
         return newItem;
     }
 
+    public Optional<ToDo> updateItem(String id, UpdateToDoDTO request) {
+        long start = metrics.start();
+        return awaitDurable(storeUpdate(id, request), ToDoMetrics.Operation.UPDATE_ITEM, start);
+    }
 
+    public CompletableFuture<Optional<ToDo>> updateItemAsync(String id, UpdateToDoDTO request) {
+        long start = metrics.start();
+        return whenDurable(storeUpdate(id, request), ToDoMetrics.Operation.UPDATE_ITEM, start);
+    }
 
-    public Optional<ToDo> updateItem(String id, UpdateToDoDTO request) {
-        Optional<ToDo> existingItem = getItem(id);
+    private Optional<ToDo> storeUpdate(String id, UpdateToDoDTO request) {
+        LocalDate dueDate = validateUpdate(request);
+        Optional<ToDo> existingItem = toDoStore.update(id, ToDoChange.Type.UPDATED,
+                todo -> applyUpdate(todo, request, dueDate));
+        existingItem.ifPresent(todo -> logger.info("Item updated with ID: {}", id));
+        return existingItem;
+    }
 
-        if (request.getText() == null && request.getPriority() == null) {
-            throw new IllegalArgumentException("No valid fields provided for update");
+    //Validates every item first, then creates the valid ones in one store critical section and one log flush
+    public List<BatchItemResultDTO> addItems(List<NewToDoDTO> requests) {
+        long start = metrics.start();
+        checkBatchSize(requests);
+        BatchItemResultDTO[] results = new BatchItemResultDTO[requests.size()];
+        ToDo[] newItems = new ToDo[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            NewToDoDTO request = requests.get(i);
+            String error = request == null ? "The item is empty" : firstViolation(request);
+            if (error == null) {
+                try {
+                    newItems[i] = toNewItem(request);
+                } catch (DateTimeParseException | IllegalArgumentException ex) {
+                    error = errorMessage(ex);
+                }
+            }
+            if (error != null) {
+                results[i] = BatchItemResultDTO.rejected(i, null, BatchItemResultDTO.Status.INVALID, error);
+            }
         }
 
-        existingItem.ifPresent(todo -> {
+        toDoStore.inBatch(() -> {
+            for (int i = 0; i < newItems.length; i++) {
+                if (newItems[i] != null) {
+                    toDoStore.save(newItems[i]);
+                    results[i] = BatchItemResultDTO.applied(i, BatchItemResultDTO.Status.CREATED, newItems[i]);
+                }
+            }
+            return null;
+        });
+        return finishBatch("created", results, ToDoMetrics.Operation.ADD_ITEMS, start);
+    }
 
-            if (Objects.nonNull(request.getText())) {
-                todo.setText(request.getText());
+    public List<BatchItemResultDTO> updateItems(List<BatchUpdateToDoDTO> requests) {
+        long start = metrics.start();
+        checkBatchSize(requests);
+        BatchItemResultDTO[] results = new BatchItemResultDTO[requests.size()];
+        LocalDate[] dueDates = new LocalDate[requests.size()];
+        for (int i = 0; i < requests.size(); i++) {
+            BatchUpdateToDoDTO request = requests.get(i);
+            String error = request == null ? "The item is empty" : firstViolation(request);
+            if (error == null) {
+                try {
+                    dueDates[i] = validateUpdate(request);
+                } catch (DateTimeParseException | IllegalArgumentException ex) {
+                    error = errorMessage(ex);
+                }
             }
-            if (Objects.nonNull(request.getPriority())) {
-                todo.setPriority(request.getPriority());
+            if (error != null) {
+                String id = request == null ? null : request.getId();
+                results[i] = BatchItemResultDTO.rejected(i, id, BatchItemResultDTO.Status.INVALID, error);
             }
-            if (request.getDueDate() == null || request.getDueDate().isEmpty()) {
-                todo.setDueDate(null);
-            } else {
-                LocalDate newDueDate = LocalDate.parse(request.getDueDate());
-                if (newDueDate.isBefore(LocalDate.now())) {
-                    throw new IllegalArgumentException("The due date must be today or a future date.");
-                } else {
-                    todo.setDueDate(newDueDate);
+        }
+
+        toDoStore.inBatch(() -> {
+            for (int i = 0; i < results.length; i++) {
+                if (results[i] != null) {
+                    continue;
                 }
+                BatchUpdateToDoDTO request = requests.get(i);
+                LocalDate dueDate = dueDates[i];
+                int index = i;
+                results[i] = toDoStore.update(request.getId(), ToDoChange.Type.UPDATED,
+                                todo -> applyUpdate(todo, request, dueDate))
+                        .map(todo -> BatchItemResultDTO.applied(index, BatchItemResultDTO.Status.UPDATED, todo))
+                        .orElseGet(() -> BatchItemResultDTO.rejected(index, request.getId(),
+                                BatchItemResultDTO.Status.NOT_FOUND, "Item not found"));
             }
-            logger.info("Item updated with ID: {}", id);
+            return null;
         });
-        return existingItem;
+        return finishBatch("updated", results, ToDoMetrics.Operation.UPDATE_ITEMS, start);
+    }
+
+    public List<BatchItemResultDTO> deleteItems(List<String> ids) {
+        long start = metrics.start();
+        checkBatchSize(ids);
+        BatchItemResultDTO[] results = new BatchItemResultDTO[ids.size()];
+        toDoStore.inBatch(() -> {
+            for (int i = 0; i < ids.size(); i++) {
+                String id = ids.get(i);
+                int index = i;
+                results[i] = toDoStore.delete(id)
+                        .map(todo -> {
+                            completionStats.remove(todo);
+                            return BatchItemResultDTO.applied(index, BatchItemResultDTO.Status.DELETED, todo);
+                        })
+                        .orElseGet(() -> BatchItemResultDTO.rejected(index, id,
+                                BatchItemResultDTO.Status.NOT_FOUND, "Item not found"));
+            }
+            return null;
+        });
+        return finishBatch("deleted", results, ToDoMetrics.Operation.DELETE_ITEMS, start);
     }
 
     public Optional<ToDo> markAsDone(String id) {
-        Optional<ToDo> existingItem = getItem(id);
+        long start = metrics.start();
+        return awaitDurable(storeDone(id), ToDoMetrics.Operation.MARK_AS_DONE, start);
+    }
 
-        existingItem.ifPresent(todo -> {
-            if (!todo.isDone()) {
-                todo.setDone(true);
-                todo.setDoneDate(LocalDateTime.now());
-                logger.info("Item marked as done with ID: {}", id);
+    public CompletableFuture<Optional<ToDo>> markAsDoneAsync(String id) {
+        long start = metrics.start();
+        return whenDurable(storeDone(id), ToDoMetrics.Operation.MARK_AS_DONE, start);
+    }
+
+    private Optional<ToDo> storeDone(String id) {
+        return toDoStore.update(id, ToDoChange.Type.DONE, todo -> {
+            if (todo.isDone()) {
+                return false;
             }
+            todo.setDone(true);
+            todo.setDoneDate(LocalDateTime.now());
+            completionStats.add(todo);
+            logger.info("Item marked as done with ID: {}", id);
+            return true;
         });
-        return existingItem;
     }
 
     public Optional<ToDo> markAsUndone(String id) {
-        Optional<ToDo> existingItem = getItem(id);
-        existingItem.ifPresent(todo -> {
-            if (todo.isDone()) {
-                todo.setDone(false);
-                todo.setDoneDate(null);
-                logger.info("Item marked as undone with ID: {}", id);
+        long start = metrics.start();
+        return awaitDurable(storeUndone(id), ToDoMetrics.Operation.MARK_AS_UNDONE, start);
+    }
+
+    public CompletableFuture<Optional<ToDo>> markAsUndoneAsync(String id) {
+        long start = metrics.start();
+        return whenDurable(storeUndone(id), ToDoMetrics.Operation.MARK_AS_UNDONE, start);
+    }
+
+    private Optional<ToDo> storeUndone(String id) {
+        return toDoStore.update(id, ToDoChange.Type.UNDONE, todo -> {
+            if (!todo.isDone()) {
+                return false;
             }
+            completionStats.remove(todo);
+            todo.setDone(false);
+            todo.setDoneDate(null);
+            logger.info("Item marked as undone with ID: {}", id);
+            return true;
         });
-        return existingItem;
     }
 
     public Optional<ToDo> deleteItem(String id) {
-        Optional<ToDo> existingItem = getItem(id);
+        long start = metrics.start();
+        return awaitDurable(storeDelete(id), ToDoMetrics.Operation.DELETE_ITEM, start);
+    }
 
+    public CompletableFuture<Optional<ToDo>> deleteItemAsync(String id) {
+        long start = metrics.start();
+        return whenDurable(storeDelete(id), ToDoMetrics.Operation.DELETE_ITEM, start);
+    }
+
+    private Optional<ToDo> storeDelete(String id) {
+        Optional<ToDo> existingItem = toDoStore.delete(id);
         existingItem.ifPresent(todo -> {
-            toDoList.remove(todo);
+            completionStats.remove(todo);
             logger.info("Item deleted with ID: {}", id);
         });
-
         return existingItem;
     }
 
+    private <T> T awaitDurable(T result, ToDoMetrics.Operation operation, long start) {
+        persistence.flush();
+        metrics.record(operation, start);
+        return result;
+    }
+
+    private <T> CompletableFuture<T> whenDurable(T result, ToDoMetrics.Operation operation, long start) {
+        return persistence.flushAsync().thenApply(durable -> {
+            metrics.record(operation, start);
+            return result;
+        });
+    }
+
     public Map<String, String> getCompletionStats(){
-        long totalMillis = 0;
-        long totalHighPriorityMillis = 0;
-        long totalMediumPriorityMillis = 0;
-        long totalLowPriorityMillis = 0;
-
-        int totalTasks = 0;
-        int highPriorityTasks = 0;
-        int mediumPriorityTasks = 0;
-        int lowPriorityTasks = 0;
-
-        for (ToDo todo : toDoList) {
-            if (todo.isDone() && todo.getDoneDate() != null && todo.getCreationDate() != null) {
-                Duration duration = Duration.between(todo.getCreationDate(), todo.getDoneDate());
-
-                long millisTaken = duration.toMillis();
-
-                totalMillis += millisTaken;
-                totalTasks++;
-
-                switch (todo.getPriority()) {
-                    case HIGH:
-                        totalHighPriorityMillis += millisTaken;
-                        highPriorityTasks++;
-                        break;
-                    case MEDIUM:
-                        totalMediumPriorityMillis += millisTaken;
-                        mediumPriorityTasks++;
-                        break;
-                    case LOW:
-                        totalLowPriorityMillis += millisTaken;
-                        lowPriorityTasks++;
-                        break;
-                }
+        long start = metrics.start();
+        Map<String, String> result = new HashMap<>();
+        result.put("averageTime", formatMillisToStandardTime(completionStats.averageMillis()));
+        result.put("averageTimeHighPriority",
+                formatMillisToStandardTime(completionStats.averageMillis(ToDo.Priority.HIGH)));
+        result.put("averageTimeMediumPriority",
+                formatMillisToStandardTime(completionStats.averageMillis(ToDo.Priority.MEDIUM)));
+        result.put("averageTimeLowPriority",
+                formatMillisToStandardTime(completionStats.averageMillis(ToDo.Priority.LOW)));
+
+        metrics.record(ToDoMetrics.Operation.GET_COMPLETION_STATS, start);
+        return result;
+
+    }
+
+    public Map<String, Map<String, CompletionTimeStatsDTO>> getCompletionPercentiles() {
+        Map<String, Map<String, CompletionTimeStatsDTO>> result = new LinkedHashMap<>();
+        result.put("allTime", summarizeCompletionTimes(completionStats::allTimeCounts));
+        result.put("lastHour", summarizeCompletionTimes(priority -> completionStats.recentCounts(priority, 1)));
+        result.put("last24Hours", summarizeCompletionTimes(
+                priority -> completionStats.recentCounts(priority, CompletionStatsTracker.HOURLY_WINDOWS)));
+        return result;
+    }
+
+    private Map<String, CompletionTimeStatsDTO> summarizeCompletionTimes(Function<ToDo.Priority, long[]> countsFor) {
+        Map<String, CompletionTimeStatsDTO> summary = new LinkedHashMap<>();
+        long[] merged = CompletionTimeHistogram.emptyCounts();
+        for (ToDo.Priority priority : ToDo.Priority.values()) {
+            long[] counts = countsFor.apply(priority);
+            for (int i = 0; i < counts.length; i++) {
+                merged[i] += counts[i];
             }
+            summary.put(priority.name(), toCompletionTimeStats(counts));
         }
+        summary.put("ALL", toCompletionTimeStats(merged));
+        return summary;
+    }
 
-        long averageMillis = totalTasks > 0 ? totalMillis / totalTasks : 0;
-        long averageHighPriorityMillis = highPriorityTasks > 0 ? totalHighPriorityMillis / highPriorityTasks : 0;
-        long averageMediumPriorityMillis = mediumPriorityTasks > 0 ? totalMediumPriorityMillis / mediumPriorityTasks : 0;
-        long averageLowPriorityMillis = lowPriorityTasks > 0 ? totalLowPriorityMillis / lowPriorityTasks : 0;
+    private CompletionTimeStatsDTO toCompletionTimeStats(long[] counts) {
+        return new CompletionTimeStatsDTO(
+                CompletionTimeHistogram.totalCount(counts),
+                formatMillisToStandardTime(CompletionTimeHistogram.valueAtQuantile(counts, 0.5)),
+                formatMillisToStandardTime(CompletionTimeHistogram.valueAtQuantile(counts, 0.9)),
+                formatMillisToStandardTime(CompletionTimeHistogram.valueAtQuantile(counts, 0.99)),
+                formatMillisToStandardTime(CompletionTimeHistogram.valueAtQuantile(counts, 1.0))
+        );
+    }
 
-        Map<String, String> result = new HashMap<>();
-        result.put("averageTime", formatMillisToStandardTime(averageMillis));
-        result.put("averageTimeHighPriority", formatMillisToStandardTime(averageHighPriorityMillis));
-        result.put("averageTimeMediumPriority", formatMillisToStandardTime(averageMediumPriorityMillis));
-        result.put("averageTimeLowPriority", formatMillisToStandardTime(averageLowPriorityMillis));
+    private ToDo toNewItem(NewToDoDTO newToDo) {
+        return ToDo.builder()
+                .text(newToDo.getText())
+                .priority(newToDo.getPriority())
+                .dueDate(parseDueDate(newToDo.getDueDate()))
+                .build();
+    }
 
+    //Due date of the update, null when it clears the due date
+    private LocalDate validateUpdate(UpdateToDoDTO request) {
+        if (request.getText() == null && request.getPriority() == null) {
+            throw new IllegalArgumentException("No valid fields provided for update");
+        }
+        return parseDueDate(request.getDueDate());
+    }
 
-        return result;
+    private LocalDate parseDueDate(String value) {
+        LocalDate dueDate = Optional.ofNullable(value)
+                .filter(d -> !d.isEmpty())
+                .map(LocalDate::parse)
+                .orElse(null);
+
+        if (dueDate != null && dueDate.isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("The due date must be today or a future date.");
+        }
+        return dueDate;
+    }
+
+    private boolean applyUpdate(ToDo todo, UpdateToDoDTO request, LocalDate dueDate) {
+        completionStats.remove(todo);
+        if (Objects.nonNull(request.getText())) {
+            todo.setText(request.getText());
+        }
+        if (Objects.nonNull(request.getPriority())) {
+            todo.setPriority(request.getPriority());
+        }
+        todo.setDueDate(dueDate);
+        completionStats.add(todo);
+        return true;
+    }
+
+    //Batch items are not validated by the controller, so each one gets its own result instead of failing the batch
+    private String firstViolation(Object request) {
+        return validator.validate(request).stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .findFirst()
+                .orElse(null);
+    }
+
+    private String errorMessage(RuntimeException ex) {
+        if (ex instanceof DateTimeParseException parseException) {
+            return String.format("Invalid date format: %s. The correct format is 'yyyy-MM-dd'",
+                    parseException.getParsedString());
+        }
+        return ex.getMessage();
+    }
+
+    private void checkBatchSize(List<?> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("The batch must contain at least one item");
+        }
+        if (requests.size() > Constants.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException(
+                    String.format("The batch size is limited to %d items", Constants.MAX_BATCH_SIZE));
+        }
+    }
 
+    private List<BatchItemResultDTO> finishBatch(String action, BatchItemResultDTO[] results,
+                                                 ToDoMetrics.Operation operation, long start) {
+        persistence.flush();
+        long applied = Arrays.stream(results).filter(BatchItemResultDTO::isApplied).count();
+        logger.info("Batch {} {} of {} items", action, applied, results.length);
+        metrics.record(operation, start);
+        return Arrays.asList(results);
     }
 
     private String formatMillisToStandardTime(long millis) {
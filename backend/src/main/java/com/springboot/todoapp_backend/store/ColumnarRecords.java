@@ -0,0 +1,467 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+//Items as primitive columns indexed by slot: the id as two longs, whether a UUID or a decimal number such as a
+//snowflake id, dates as epoch numbers, priority and the done flag as bytes and the text as UTF-8 in one shared byte
+//arena. An item costs about 60 bytes plus its text instead of the few hundred its objects take, and the heap holds a
+//handful of arrays instead of millions of small objects. Items only exist as objects while a caller holds them, get
+//builds a new one every time
+class ColumnarRecords implements ToDoRecords {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final byte NO_PRIORITY = -1;
+    private static final int NO_TEXT = -1;
+    private static final byte LIVE = 1;
+    private static final byte DONE = 2;
+    private static final byte NUMERIC_ID = 4;
+    private static final int NOT_AN_ID = -1;
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final ToDo.Priority[] PRIORITIES = ToDo.Priority.values();
+
+    // Overwritten and deleted texts are only reclaimed once they are this much of the arena
+    private static final int MIN_ARENA_GARBAGE = 1 << 20;
+
+    private int slots = 0;
+    private int size = 0;
+
+    private long[] idHigh;
+    private long[] idLow;
+    private int[] dueDates;
+    private long[] creationTimes;
+    private long[] doneTimes;
+    private byte[] priorities;
+    private byte[] flags;
+    private int[] textOffsets;
+    private int[] textLengths;
+    private long[] versions;
+
+    private byte[] arena = new byte[64 * 1024];
+    private int arenaUsed = 0;
+    private int arenaGarbage = 0;
+
+    // Open addressing table of slot + 1 by id hash, 0 marks a free bucket
+    private int[] idTable;
+
+    ColumnarRecords() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private ColumnarRecords(int capacity) {
+        capacity = Math.max(capacity, INITIAL_CAPACITY);
+        idHigh = new long[capacity];
+        idLow = new long[capacity];
+        dueDates = new int[capacity];
+        creationTimes = new long[capacity];
+        doneTimes = new long[capacity];
+        priorities = new byte[capacity];
+        flags = new byte[capacity];
+        textOffsets = new int[capacity];
+        textLengths = new int[capacity];
+        versions = new long[capacity];
+        idTable = new int[Integer.highestOneBit(capacity - 1) << 2];
+    }
+
+    @Override
+    public boolean concurrentFind() {
+        return false;
+    }
+
+    @Override
+    public ToDo find(String id) {
+        int slot = slotOf(id);
+        return slot == NO_SLOT ? null : get(slot);
+    }
+
+    @Override
+    public long versionOf(String id) {
+        int slot = slotOf(id);
+        return slot == NO_SLOT ? 0 : versions[slot];
+    }
+
+    @Override
+    public int slotOf(String id) {
+        // Readers share the read lock, so the parsed halves cannot live in a field
+        long[] parsed = new long[2];
+        int kind = parseId(id, parsed);
+        if (kind == NOT_AN_ID) {
+            return NO_SLOT;
+        }
+        long high = parsed[0];
+        long low = parsed[1];
+        int mask = idTable.length - 1;
+        for (int bucket = hash(high, low) & mask; ; bucket = (bucket + 1) & mask) {
+            int entry = idTable[bucket];
+            if (entry == 0) {
+                return NO_SLOT;
+            }
+            if (idHigh[entry - 1] == high && idLow[entry - 1] == low && (flags[entry - 1] & NUMERIC_ID) == kind) {
+                return entry - 1;
+            }
+        }
+    }
+
+    @Override
+    public ToDo get(int slot) {
+        if (!isLive(slot)) {
+            return null;
+        }
+        return ToDo.builder()
+                .id(idOf(slot))
+                .text(text(slot))
+                .dueDate(dueDates[slot] == NO_DATE ? null : LocalDate.ofEpochDay(dueDates[slot]))
+                .isDone((flags[slot] & DONE) != 0)
+                .doneDate(toDateTime(doneTimes[slot]))
+                .priority(priorities[slot] == NO_PRIORITY ? null : PRIORITIES[priorities[slot]])
+                .creationDate(toDateTime(creationTimes[slot]))
+                .build();
+    }
+
+    @Override
+    public boolean isLive(int slot) {
+        return (flags[slot] & LIVE) != 0;
+    }
+
+    @Override
+    public String idOf(int slot) {
+        if ((flags[slot] & NUMERIC_ID) != 0) {
+            return Long.toString(idLow[slot]);
+        }
+        return new UUID(idHigh[slot], idLow[slot]).toString();
+    }
+
+    @Override
+    public int add(ToDo item) {
+        long[] id = new long[2];
+        int kind = parseId(item.getId(), id);
+        if (kind == NOT_AN_ID) {
+            throw new IllegalArgumentException(
+                    "The columnar layout only stores lowercase UUID or decimal ids, not " + item.getId());
+        }
+        if (slots == idHigh.length) {
+            grow(slots * 2);
+        }
+        if ((size + 1) * 2 > idTable.length) {
+            rehash(idTable.length * 2);
+        }
+        int slot = slots++;
+        idHigh[slot] = id[0];
+        idLow[slot] = id[1];
+        creationTimes[slot] = toNanos(item.getCreationDate());
+        versions[slot] = 0;
+        textLengths[slot] = NO_TEXT;
+        flags[slot] = (byte) kind;
+        write(slot, item);
+        size++;
+        insertId(slot);
+        return slot;
+    }
+
+    @Override
+    public void set(int slot, ToDo item) {
+        write(slot, item);
+    }
+
+    @Override
+    public void remove(int slot) {
+        deleteId(slot);
+        releaseText(slot);
+        flags[slot] = 0;
+        size--;
+    }
+
+    @Override
+    public void setVersion(int slot, long version) {
+        versions[slot] = version;
+    }
+
+    @Override
+    public boolean matches(int slot, ToDoFilter filter) {
+        byte flag = flags[slot];
+        if ((flag & LIVE) == 0) {
+            return false;
+        }
+        if (filter.isDone() != null && ((flag & DONE) != 0) != filter.isDone()) {
+            return false;
+        }
+        if (filter.priority() != null && priorities[slot] != filter.priority().ordinal()) {
+            return false;
+        }
+        if (filter.text() == null) {
+            return true;
+        }
+        String text = text(slot);
+        return text != null && text.toLowerCase().contains(filter.text());
+    }
+
+    @Override
+    public long sortKey(int slot, ToDoSort.Field field) {
+        return switch (field) {
+            case PRIORITY -> priorities[slot];
+            case DUE_DATE -> dueDates[slot] == NO_DATE ? ToDoIndexes.NO_DUE_DATE : dueDates[slot];
+            case CREATION_DATE -> ToDoSort.Field.CREATION_DATE.of(packedKey(slot));
+        };
+    }
+
+    @Override
+    public long packedKey(int slot) {
+        long creationTime = creationTimes[slot];
+        return ToDoSort.pack(priorities[slot],
+                dueDates[slot] == NO_DATE ? Long.MAX_VALUE : dueDates[slot],
+                creationTime == NO_TIME ? 0 : Math.floorDiv(creationTime, NANOS_PER_SECOND));
+    }
+
+    @Override
+    public int slots() {
+        return slots;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public ToDoRecords compacted() {
+        ColumnarRecords compacted = new ColumnarRecords(size);
+        for (int slot = 0; slot < slots; slot++) {
+            if (!isLive(slot)) {
+                continue;
+            }
+            int copy = compacted.slots++;
+            compacted.idHigh[copy] = idHigh[slot];
+            compacted.idLow[copy] = idLow[slot];
+            compacted.dueDates[copy] = dueDates[slot];
+            compacted.creationTimes[copy] = creationTimes[slot];
+            compacted.doneTimes[copy] = doneTimes[slot];
+            compacted.priorities[copy] = priorities[slot];
+            compacted.flags[copy] = flags[slot];
+            compacted.versions[copy] = versions[slot];
+            compacted.textLengths[copy] = NO_TEXT;
+            if (textLengths[slot] != NO_TEXT) {
+                compacted.appendText(copy, arena, textOffsets[slot], textLengths[slot]);
+            }
+            compacted.size++;
+            compacted.insertId(copy);
+        }
+        return compacted;
+    }
+
+    //Bytes held by the columns, the arena and the id table
+    long footprint() {
+        long perSlot = 8 + 8 + 4 + 8 + 8 + 1 + 1 + 4 + 4 + 8;
+        return perSlot * idHigh.length + arena.length + 4L * idTable.length;
+    }
+
+    //Writes every field that can change, the id and creation date are fixed when the slot is added
+    private void write(int slot, ToDo item) {
+        dueDates[slot] = item.getDueDate() == null ? NO_DATE : (int) item.getDueDate().toEpochDay();
+        doneTimes[slot] = toNanos(item.getDoneDate());
+        priorities[slot] = item.getPriority() == null ? NO_PRIORITY : (byte) item.getPriority().ordinal();
+        flags[slot] = (byte) ((flags[slot] & NUMERIC_ID) | LIVE | (item.isDone() ? DONE : 0));
+        if (!sameText(slot, item.getText())) {
+            releaseText(slot);
+            if (item.getText() != null) {
+                byte[] text = item.getText().getBytes(StandardCharsets.UTF_8);
+                appendText(slot, text, 0, text.length);
+            }
+        }
+    }
+
+    private String text(int slot) {
+        int length = textLengths[slot];
+        return length == NO_TEXT ? null : new String(arena, textOffsets[slot], length, StandardCharsets.UTF_8);
+    }
+
+    private boolean sameText(int slot, String text) {
+        if (text == null || textLengths[slot] == NO_TEXT) {
+            return text == null && textLengths[slot] == NO_TEXT;
+        }
+        return textLengths[slot] >= text.length() && text.equals(text(slot));
+    }
+
+    private void appendText(int slot, byte[] source, int offset, int length) {
+        if (arena.length - arenaUsed < length) {
+            if (arenaGarbage >= MIN_ARENA_GARBAGE && arenaGarbage >= arenaUsed / 2) {
+                compactArena();
+            }
+            if (arena.length - arenaUsed < length) {
+                long needed = Math.max((long) arena.length * 2, (long) arenaUsed + length);
+                if (needed > Integer.MAX_VALUE - 8) {
+                    throw new IllegalStateException("The text arena cannot grow past 2 GB");
+                }
+                arena = Arrays.copyOf(arena, (int) needed);
+            }
+        }
+        System.arraycopy(source, offset, arena, arenaUsed, length);
+        textOffsets[slot] = arenaUsed;
+        textLengths[slot] = length;
+        arenaUsed += length;
+    }
+
+    private void releaseText(int slot) {
+        if (textLengths[slot] != NO_TEXT) {
+            arenaGarbage += textLengths[slot];
+            textLengths[slot] = NO_TEXT;
+        }
+    }
+
+    //Moves the live texts to the front of a new arena, in slot order
+    private void compactArena() {
+        byte[] compacted = new byte[arena.length];
+        int used = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int length = textLengths[slot];
+            if (isLive(slot) && length != NO_TEXT) {
+                System.arraycopy(arena, textOffsets[slot], compacted, used, length);
+                textOffsets[slot] = used;
+                used += length;
+            }
+        }
+        arena = compacted;
+        arenaUsed = used;
+        arenaGarbage = 0;
+    }
+
+    private void grow(int capacity) {
+        idHigh = Arrays.copyOf(idHigh, capacity);
+        idLow = Arrays.copyOf(idLow, capacity);
+        dueDates = Arrays.copyOf(dueDates, capacity);
+        creationTimes = Arrays.copyOf(creationTimes, capacity);
+        doneTimes = Arrays.copyOf(doneTimes, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        textOffsets = Arrays.copyOf(textOffsets, capacity);
+        textLengths = Arrays.copyOf(textLengths, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+    }
+
+    private void rehash(int buckets) {
+        idTable = new int[buckets];
+        for (int slot = 0; slot < slots; slot++) {
+            if (isLive(slot)) {
+                insertId(slot);
+            }
+        }
+    }
+
+    private void insertId(int slot) {
+        int mask = idTable.length - 1;
+        int bucket = hash(idHigh[slot], idLow[slot]) & mask;
+        while (idTable[bucket] != 0) {
+            bucket = (bucket + 1) & mask;
+        }
+        idTable[bucket] = slot + 1;
+    }
+
+    //Linear probing delete: later entries of the probe run are shifted back so lookups never stop early
+    private void deleteId(int slot) {
+        int mask = idTable.length - 1;
+        int hole = hash(idHigh[slot], idLow[slot]) & mask;
+        while (idTable[hole] != slot + 1) {
+            hole = (hole + 1) & mask;
+        }
+        idTable[hole] = 0;
+        for (int bucket = (hole + 1) & mask; idTable[bucket] != 0; bucket = (bucket + 1) & mask) {
+            int entry = idTable[bucket] - 1;
+            int home = hash(idHigh[entry], idLow[entry]) & mask;
+            // The entry may move back into the hole unless its home lies cyclically after the hole
+            if (((bucket - home) & mask) >= ((bucket - hole) & mask)) {
+                idTable[hole] = idTable[bucket];
+                idTable[bucket] = 0;
+                hole = bucket;
+            }
+        }
+    }
+
+    private static int hash(long high, long low) {
+        long hash = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    //Reads an id into two longs and returns NUMERIC_ID for a decimal id, 0 for a canonical lowercase UUID and
+    //NOT_AN_ID for anything else
+    private static int parseId(String id, long[] into) {
+        if (id == null) {
+            return NOT_AN_ID;
+        }
+        if (id.length() != 36) {
+            return parseNumericId(id, into);
+        }
+        long high = 0;
+        long low = 0;
+        int digits = 0;
+        for (int i = 0; i < 36; i++) {
+            char c = id.charAt(i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (c != '-') {
+                    return NOT_AN_ID;
+                }
+                continue;
+            }
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'a' && c <= 'f') {
+                value = c - 'a' + 10;
+            } else {
+                return NOT_AN_ID;
+            }
+            if (digits++ < 16) {
+                high = (high << 4) | value;
+            } else {
+                low = (low << 4) | value;
+            }
+        }
+        into[0] = high;
+        into[1] = low;
+        return 0;
+    }
+
+    //Decimal ids without leading zeros that fit a positive long, the high half is left at 0
+    private static int parseNumericId(String id, long[] into) {
+        int length = id.length();
+        if (length == 0 || length > 19 || (length > 1 && id.charAt(0) == '0')) {
+            return NOT_AN_ID;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = id.charAt(i);
+            if (c < '0' || c > '9') {
+                return NOT_AN_ID;
+            }
+            int digit = c - '0';
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return NOT_AN_ID;
+            }
+            value = value * 10 + digit;
+        }
+        into[0] = 0;
+        into[1] = value;
+        return NUMERIC_ID;
+    }
+
+    private static long toNanos(LocalDateTime dateTime) {
+        if (dateTime == null) {
+            return NO_TIME;
+        }
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * NANOS_PER_SECOND + dateTime.getNano();
+    }
+
+    private static LocalDateTime toDateTime(long nanos) {
+        if (nanos == NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                (int) Math.floorMod(nanos, NANOS_PER_SECOND), ZoneOffset.UTC);
+    }
+}
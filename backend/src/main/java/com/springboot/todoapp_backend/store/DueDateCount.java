@@ -0,0 +1,7 @@
+package com.springboot.todoapp_backend.store;
+
+import java.time.LocalDate;
+
+//Items due on one day, done or not, and how many of them are still undone
+public record DueDateCount(LocalDate date, int total, int undone) {
+}
@@ -0,0 +1,150 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//The items themselves, by slot. Lookups by id go through a concurrent map, so they do not need the store lock
+class ObjectRecords implements ToDoRecords {
+
+    private final Map<String, Entry> itemsById = new ConcurrentHashMap<>();
+
+    // Items by insertion slot, deleted slots are left as null until the next compaction
+    private final List<ToDo> items;
+
+    // Packed sort key of the item in each slot, kept next to the items so sorting never dereferences them
+    private long[] packedKeys;
+
+    ObjectRecords() {
+        this(16);
+    }
+
+    private ObjectRecords(int capacity) {
+        this.items = new ArrayList<>(capacity);
+        this.packedKeys = new long[Math.max(16, capacity)];
+    }
+
+    @Override
+    public boolean concurrentFind() {
+        return true;
+    }
+
+    @Override
+    public ToDo find(String id) {
+        Entry entry = itemsById.get(id);
+        return entry == null ? null : entry.item();
+    }
+
+    @Override
+    public long versionOf(String id) {
+        Entry entry = itemsById.get(id);
+        return entry == null ? 0 : entry.version();
+    }
+
+    @Override
+    public int slotOf(String id) {
+        Entry entry = itemsById.get(id);
+        return entry == null ? NO_SLOT : entry.slot();
+    }
+
+    @Override
+    public ToDo get(int slot) {
+        return items.get(slot);
+    }
+
+    @Override
+    public boolean isLive(int slot) {
+        return items.get(slot) != null;
+    }
+
+    @Override
+    public String idOf(int slot) {
+        return items.get(slot).getId();
+    }
+
+    @Override
+    public int add(ToDo item) {
+        int slot = items.size();
+        items.add(item);
+        if (slot == packedKeys.length) {
+            packedKeys = Arrays.copyOf(packedKeys, slot * 2);
+        }
+        packedKeys[slot] = pack(item);
+        itemsById.put(item.getId(), new Entry(slot, item, 0));
+        return slot;
+    }
+
+    @Override
+    public void set(int slot, ToDo item) {
+        // Packed again even for the same object, updates change the live item in place
+        packedKeys[slot] = pack(item);
+        if (items.get(slot) == item) {
+            return;
+        }
+        Entry previous = itemsById.get(item.getId());
+        items.set(slot, item);
+        itemsById.put(item.getId(), new Entry(slot, item, previous != null ? previous.version() : 0));
+    }
+
+    @Override
+    public void remove(int slot) {
+        itemsById.remove(items.get(slot).getId());
+        items.set(slot, null);
+    }
+
+    @Override
+    public void setVersion(int slot, long version) {
+        ToDo item = items.get(slot);
+        itemsById.put(item.getId(), new Entry(slot, item, version));
+    }
+
+    @Override
+    public boolean matches(int slot, ToDoFilter filter) {
+        ToDo item = items.get(slot);
+        return item != null && filter.matches(item);
+    }
+
+    @Override
+    public long sortKey(int slot, ToDoSort.Field field) {
+        return ToDoIndexes.sortKey(field, items.get(slot));
+    }
+
+    @Override
+    public long packedKey(int slot) {
+        return packedKeys[slot];
+    }
+
+    @Override
+    public int slots() {
+        return items.size();
+    }
+
+    @Override
+    public int size() {
+        return itemsById.size();
+    }
+
+    @Override
+    public ToDoRecords compacted() {
+        ObjectRecords compacted = new ObjectRecords(itemsById.size());
+        for (ToDo item : items) {
+            if (item != null) {
+                int slot = compacted.add(item);
+                compacted.setVersion(slot, itemsById.get(item.getId()).version());
+            }
+        }
+        return compacted;
+    }
+
+    private static long pack(ToDo item) {
+        return ToDoSort.pack(item.getPriority(), item.getDueDate(), item.getCreationDate());
+    }
+
+    // Version is the sequence of the last change to the item
+    private record Entry(int slot, ToDo item, long version) {
+    }
+}
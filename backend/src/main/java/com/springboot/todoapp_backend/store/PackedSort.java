@@ -0,0 +1,87 @@
+package com.springboot.todoapp_backend.store;
+
+import java.util.Arrays;
+
+//Stable radix sort of non-negative packed keys, carrying the slot of each key along. One pass per byte, skipping the
+//bytes every key shares, so a sort is a few linear passes of primitive work without any comparator calls. Slots
+//collected in increasing order keep that order among equal keys
+final class PackedSort {
+
+    // Below this many keys an insertion sort is cheaper than the passes
+    private static final int INSERTION_SORT_MAX = 32;
+
+    private PackedSort() {
+    }
+
+    static void sort(long[] keys, int[] slots, int length) {
+        if (length <= INSERTION_SORT_MAX) {
+            insertionSort(keys, slots, length);
+            return;
+        }
+        long[] sourceKeys = keys;
+        int[] sourceSlots = slots;
+        long[] targetKeys = new long[length];
+        int[] targetSlots = new int[length];
+        int[] offsets = new int[256];
+        for (int shift = 0; shift < Long.SIZE; shift += Byte.SIZE) {
+            Arrays.fill(offsets, 0);
+            for (int i = 0; i < length; i++) {
+                offsets[(int) (sourceKeys[i] >>> shift) & 0xFF]++;
+            }
+            if (offsets[(int) (sourceKeys[0] >>> shift) & 0xFF] == length) {
+                continue;
+            }
+            int start = 0;
+            for (int digit = 0; digit < offsets.length; digit++) {
+                int count = offsets[digit];
+                offsets[digit] = start;
+                start += count;
+            }
+            for (int i = 0; i < length; i++) {
+                int to = offsets[(int) (sourceKeys[i] >>> shift) & 0xFF]++;
+                targetKeys[to] = sourceKeys[i];
+                targetSlots[to] = sourceSlots[i];
+            }
+            long[] swapKeys = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = swapKeys;
+            int[] swapSlots = sourceSlots;
+            sourceSlots = targetSlots;
+            targetSlots = swapSlots;
+        }
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, length);
+            System.arraycopy(sourceSlots, 0, slots, 0, length);
+        }
+    }
+
+    //Index of the first entry that comes after the given key and slot, in arrays sorted by sort
+    static int after(long[] keys, int[] slots, int length, long key, int slot) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key || (keys[middle] == key && slots[middle] <= slot)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void insertionSort(long[] keys, int[] slots, int length) {
+        for (int i = 1; i < length; i++) {
+            long key = keys[i];
+            int slot = slots[i];
+            int j = i - 1;
+            while (j >= 0 && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                slots[j + 1] = slots[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            slots[j + 1] = slot;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.util.List;
+
+//Items one shard contributes to a result, in the shard's order, with what the store needs to merge them with the
+//other shards: the sort bucket key, the composed packed key and the store-wide insertion ordinal of each item.
+//Keys are null when the result is only ordered by insertion, total is every match of the shard
+record ShardItems(List<ToDo> items, long[] keys, long[] packed, long[] ordinals, int total) {
+}
@@ -0,0 +1,100 @@
+package com.springboot.todoapp_backend.store;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+//Set of store slots: a sorted int array while sparse, switching to a bitmap once that is the smaller layout
+class SlotSet {
+
+    private static final int MIN_DENSE_SIZE = 64;
+
+    private int[] sparse = new int[4];
+    private BitSet dense;
+    private int size = 0;
+
+    boolean add(int slot) {
+        if (dense != null) {
+            if (dense.get(slot)) {
+                return false;
+            }
+            dense.set(slot);
+            size++;
+            return true;
+        }
+        // Slots are handed out in increasing order, so this is almost always an append
+        int index = size == 0 || sparse[size - 1] < slot ? -(size + 1) : Arrays.binarySearch(sparse, 0, size, slot);
+        if (index >= 0) {
+            return false;
+        }
+        index = -(index + 1);
+        if (size == sparse.length) {
+            sparse = Arrays.copyOf(sparse, size * 2);
+        }
+        System.arraycopy(sparse, index, sparse, index + 1, size - index);
+        sparse[index] = slot;
+        size++;
+        if (size >= MIN_DENSE_SIZE && (long) size * Integer.SIZE > sparse[size - 1]) {
+            toDense();
+        }
+        return true;
+    }
+
+    boolean remove(int slot) {
+        if (dense != null) {
+            if (!dense.get(slot)) {
+                return false;
+            }
+            dense.clear(slot);
+            size--;
+            return true;
+        }
+        int index = Arrays.binarySearch(sparse, 0, size, slot);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(sparse, index + 1, sparse, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int slot) {
+        if (dense != null) {
+            return dense.get(slot);
+        }
+        return Arrays.binarySearch(sparse, 0, size, slot) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    //Smallest slot greater than or equal to fromSlot, -1 when there is none
+    int next(int fromSlot) {
+        if (dense != null) {
+            return dense.nextSetBit(fromSlot);
+        }
+        int index = Arrays.binarySearch(sparse, 0, size, fromSlot);
+        if (index < 0) {
+            index = -(index + 1);
+        }
+        return index < size ? sparse[index] : -1;
+    }
+
+    void clear() {
+        sparse = new int[4];
+        dense = null;
+        size = 0;
+    }
+
+    private void toDense() {
+        dense = new BitSet(sparse[size - 1] + 1);
+        for (int i = 0; i < size; i++) {
+            dense.set(sparse[i]);
+        }
+        sparse = null;
+    }
+}
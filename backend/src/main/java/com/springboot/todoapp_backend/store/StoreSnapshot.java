@@ -0,0 +1,9 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.util.List;
+
+//Items in the store together with the sequence of the last change applied when they were listed
+public record StoreSnapshot(List<ToDo> items, long sequence) {
+}
@@ -0,0 +1,14 @@
+package com.springboot.todoapp_backend.store;
+
+//Point in time sizes of the store internals: holes are deleted slots waiting for the next compaction
+public record StoreStats(
+        int items,
+        int slots,
+        int holes,
+        int generation,
+        int doneItems,
+        int dueDateBuckets,
+        int textGrams,
+        int cachedCounts
+) {
+}
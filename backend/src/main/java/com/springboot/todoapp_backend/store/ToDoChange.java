@@ -0,0 +1,19 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+//A mutation applied to the store, numbered by a store-wide sequence in the order the changes were applied
+public record ToDoChange(long sequence, Type type, ToDo item) {
+
+    public enum Type {
+        CREATED, UPDATED, DONE, UNDONE, DELETED
+    }
+
+    //The change with a copy of the item as it is now. Listeners keeping changes past the call hold on to this, the
+    //store changes its items in place
+    public ToDoChange snapshot() {
+        ToDo copy = new ToDo(item.getId(), item.getText(), item.getDueDate(), item.isDone(), item.getDoneDate(),
+                item.getPriority(), item.getCreationDate());
+        return new ToDoChange(sequence, type, copy);
+    }
+}
@@ -0,0 +1,7 @@
+package com.springboot.todoapp_backend.store;
+
+//Called while the store write lock is held, so listeners see changes in sequence order and must return quickly
+public interface ToDoChangeListener {
+
+    void onChange(ToDoChange change);
+}
@@ -0,0 +1,49 @@
+package com.springboot.todoapp_backend.store;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+//Position right after the last item of a page: its sort bucket key, its composed packed key for sorts on several keys
+//and its insertion ordinal. Ordinals never change, so cursors stay valid across compactions and in every shard
+record ToDoCursor(ToDoSort sort, long key, long packed, long ordinal) {
+
+    private static final String SEPARATOR = ".";
+
+    String encode() {
+        List<String> keys = new ArrayList<>();
+        for (ToDoSort.Key sortKey : sort.keys()) {
+            keys.add(sortKey.field().name() + ":" + sortKey.reversed());
+        }
+        String raw = String.join(SEPARATOR,
+                String.join(",", keys),
+                String.valueOf(key),
+                String.valueOf(packed),
+                String.valueOf(ordinal));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ToDoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\.");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            List<ToDoSort.Key> keys = new ArrayList<>();
+            for (String sortKey : parts[0].split(",")) {
+                String[] fieldAndReversed = sortKey.split(":");
+                if (fieldAndReversed.length != 2) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                keys.add(new ToDoSort.Key(ToDoSort.Field.valueOf(fieldAndReversed[0]),
+                        Boolean.parseBoolean(fieldAndReversed[1])));
+            }
+            return new ToDoCursor(new ToDoSort(keys), Long.parseLong(parts[1]), Long.parseLong(parts[2]),
+                    Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+public record ToDoFilter(String text, ToDo.Priority priority, Boolean isDone) {
+
+    public static final ToDoFilter ALL = new ToDoFilter(null, null, null);
+
+    //Text is matched case-insensitively, so it is lowercased once here instead of on every item
+    public ToDoFilter {
+        text = text == null ? null : text.toLowerCase();
+    }
+
+    public boolean matches(ToDo todo) {
+        return (text == null || todo.getText().toLowerCase().contains(text))
+                && (priority == null || todo.getPriority() == priority)
+                && (isDone == null || todo.isDone() == isDone);
+    }
+}
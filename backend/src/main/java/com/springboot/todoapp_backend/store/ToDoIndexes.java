@@ -0,0 +1,141 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+//Secondary indexes over store slots, only touched while holding the store lock
+class ToDoIndexes {
+
+    //Sort key of the items without due date, so they come after every dated bucket
+    static final long NO_DUE_DATE = Long.MAX_VALUE;
+
+    private final Map<ToDo.Priority, SlotSet> byPriority = new EnumMap<>(ToDo.Priority.class);
+    private final NavigableMap<Long, SlotSet> priorityOrder = new TreeMap<>();
+    private final SlotSet done = new SlotSet();
+    private final SlotSet undone = new SlotSet();
+    private final NavigableMap<Long, SlotSet> byDueDate = new TreeMap<>();
+    // Day buckets of the undone items only, what the overdue and due soon queries walk
+    private final NavigableMap<Long, SlotSet> undoneByDueDate = new TreeMap<>();
+    private final ToDoTextIndex byText = new ToDoTextIndex();
+
+    ToDoIndexes() {
+        for (ToDo.Priority priority : ToDo.Priority.values()) {
+            SlotSet bucket = new SlotSet();
+            byPriority.put(priority, bucket);
+            priorityOrder.put((long) priority.ordinal(), bucket);
+        }
+    }
+
+    static long dueDateKey(LocalDate dueDate) {
+        return dueDate == null ? NO_DUE_DATE : dueDate.toEpochDay();
+    }
+
+    static long sortKey(ToDoSort.Field field, ToDo item) {
+        return switch (field) {
+            case PRIORITY -> item.getPriority().ordinal();
+            case DUE_DATE -> dueDateKey(item.getDueDate());
+            case CREATION_DATE -> ToDoSort.Field.CREATION_DATE.of(
+                    ToDoSort.pack(null, null, item.getCreationDate()));
+        };
+    }
+
+    void add(int slot, ToDo item) {
+        if (item.getPriority() != null) {
+            byPriority.get(item.getPriority()).add(slot);
+        }
+        (item.isDone() ? done : undone).add(slot);
+        byDueDate.computeIfAbsent(dueDateKey(item.getDueDate()), key -> new SlotSet()).add(slot);
+        if (!item.isDone() && item.getDueDate() != null) {
+            undoneByDueDate.computeIfAbsent(dueDateKey(item.getDueDate()), key -> new SlotSet()).add(slot);
+        }
+        byText.add(slot, item.getText());
+    }
+
+    void remove(int slot, ToDo item) {
+        if (item.getPriority() != null) {
+            byPriority.get(item.getPriority()).remove(slot);
+        }
+        (item.isDone() ? done : undone).remove(slot);
+        long dueDateKey = dueDateKey(item.getDueDate());
+        removeFromBucket(byDueDate, dueDateKey, slot);
+        if (!item.isDone() && item.getDueDate() != null) {
+            removeFromBucket(undoneByDueDate, dueDateKey, slot);
+        }
+        byText.remove(slot, item.getText());
+    }
+
+    void clear() {
+        byPriority.values().forEach(SlotSet::clear);
+        done.clear();
+        undone.clear();
+        byDueDate.clear();
+        undoneByDueDate.clear();
+        byText.clear();
+    }
+
+    private static void removeFromBucket(NavigableMap<Long, SlotSet> buckets, long key, int slot) {
+        SlotSet bucket = buckets.get(key);
+        if (bucket != null && bucket.remove(slot) && bucket.isEmpty()) {
+            buckets.remove(key);
+        }
+    }
+
+    int dueDateBuckets() {
+        return byDueDate.size();
+    }
+
+    int textGrams() {
+        return byText.grams();
+    }
+
+    SlotSet priority(ToDo.Priority priority) {
+        return byPriority.get(priority);
+    }
+
+    SlotSet status(boolean isDone) {
+        return isDone ? done : undone;
+    }
+
+    //Day buckets from the first day to the last, both inclusive, only the days that have items
+    NavigableMap<Long, SlotSet> dueBetween(long fromDay, long toDay, boolean undoneOnly) {
+        return (undoneOnly ? undoneByDueDate : byDueDate).subMap(fromDay, true, toDay, true);
+    }
+
+    //Buckets in the order the sort visits them, items inside a bucket keep their insertion order
+    NavigableMap<Long, SlotSet> ordered(ToDoSort sort, ToDoFilter filter) {
+        NavigableMap<Long, SlotSet> buckets;
+        if (sort.field() == ToDoSort.Field.DUE_DATE) {
+            buckets = byDueDate;
+        } else if (filter.priority() != null) {
+            long key = filter.priority().ordinal();
+            buckets = priorityOrder.subMap(key, true, key, true);
+        } else {
+            buckets = priorityOrder;
+        }
+        return sort.reversed() ? buckets.descendingMap() : buckets;
+    }
+
+    //Picks the smallest index that satisfies part of the filter, null means a full scan is needed
+    SlotSet plan(ToDoFilter filter) {
+        SlotSet best = null;
+        if (filter.text() != null) {
+            best = byText.candidates(filter.text());
+        }
+        if (filter.priority() != null) {
+            best = smallest(best, priority(filter.priority()));
+        }
+        if (filter.isDone() != null) {
+            best = smallest(best, status(filter.isDone()));
+        }
+        return best;
+    }
+
+    private static SlotSet smallest(SlotSet current, SlotSet candidate) {
+        return current == null || candidate.size() < current.size() ? candidate : current;
+    }
+}
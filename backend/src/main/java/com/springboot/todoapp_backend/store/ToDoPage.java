@@ -0,0 +1,8 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.util.List;
+
+public record ToDoPage(List<ToDo> items, int totalItems, String nextCursor) {
+}
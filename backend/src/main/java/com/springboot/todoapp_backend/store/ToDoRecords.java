@@ -0,0 +1,55 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+//How the store lays its items out by slot. Only called while holding the store lock, apart from find and
+//versionOf on layouts whose concurrentFind is true
+interface ToDoRecords {
+
+    int NO_SLOT = -1;
+
+    //Whether find and versionOf are safe without the store lock
+    boolean concurrentFind();
+
+    ToDo find(String id);
+
+    //Sequence of the last change to the item, 0 when there is no such item
+    long versionOf(String id);
+
+    //Slot of the item with the id, NO_SLOT when there is none
+    int slotOf(String id);
+
+    //The item in the slot, null for a deleted slot
+    ToDo get(int slot);
+
+    boolean isLive(int slot);
+
+    String idOf(int slot);
+
+    //Appends a new item and returns its slot
+    int add(ToDo item);
+
+    //Replaces the item in a live slot, keeping its version
+    void set(int slot, ToDo item);
+
+    //Leaves a hole in the slot until the next compaction
+    void remove(int slot);
+
+    void setVersion(int slot, long version);
+
+    //False for deleted slots
+    boolean matches(int slot, ToDoFilter filter);
+
+    long sortKey(int slot, ToDoSort.Field field);
+
+    //Priority, due date and creation second of the item packed as ToDoSort.pack lays them out
+    long packedKey(int slot);
+
+    //Slots handed out so far, deleted ones included
+    int slots();
+
+    int size();
+
+    //The live items renumbered into a dense slot range, keeping their relative order and versions
+    ToDoRecords compacted();
+}
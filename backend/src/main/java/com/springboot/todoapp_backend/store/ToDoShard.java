@@ -0,0 +1,688 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+//The items whose ids hash to one partition of the store, with their own records, indexes and lock so writes to
+//different shards never wait on each other. Sequences and insertion ordinals come from the store, which merges
+//what the shards return
+class ToDoShard {
+
+    // Upper bound on cached filter counts, free text filters would otherwise grow the cache forever
+    private static final int MAX_CACHED_COUNTS = 1024;
+
+    // Candidate sets up to this fraction of the shard are sorted directly instead of walking the sort order
+    private static final int SELECTIVE_FRACTION = 8;
+
+    // Items collected per read lock acquisition when visiting
+    static final int VISIT_CHUNK = 512;
+
+    // Compaction only kicks in once there are enough holes to be worth renumbering
+    private static final int MIN_HOLES_TO_COMPACT = 1024;
+
+    private final ToDoStore store;
+
+    // Replaced by a new instance on compaction, so lock-free lookups always see one consistent layout
+    private volatile ToDoRecords records;
+
+    private final ToDoIndexes indexes = new ToDoIndexes();
+
+    // Store-wide insertion ordinal of the item in each slot, increasing with the slot
+    private long[] ordinals = new long[1024];
+
+    // Match counts per filter, valid until the next mutation clears them
+    private final Map<ToDoFilter, Integer> counts = new ConcurrentHashMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private int holes = 0;
+
+    // Bumped on every compaction, chunked visits resume by ordinal when it changes
+    private int generation = 0;
+
+    ToDoShard(ToDoStore store, ToDoStore.Layout layout) {
+        this.store = store;
+        this.records = layout == ToDoStore.Layout.COLUMNAR ? new ColumnarRecords() : new ObjectRecords();
+    }
+
+    ReentrantReadWriteLock lock() {
+        return lock;
+    }
+
+    Optional<ToDo> findById(String id) {
+        ToDoRecords current = records;
+        if (current.concurrentFind()) {
+            return Optional.ofNullable(current.find(id));
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(records.find(id));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    boolean contains(String id) {
+        ToDoRecords current = records;
+        if (current.concurrentFind()) {
+            return current.slotOf(id) != ToDoRecords.NO_SLOT;
+        }
+        lock.readLock().lock();
+        try {
+            return records.slotOf(id) != ToDoRecords.NO_SLOT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long versionOf(String id) {
+        ToDoRecords current = records;
+        if (current.concurrentFind()) {
+            return current.versionOf(id);
+        }
+        lock.readLock().lock();
+        try {
+            return records.versionOf(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //The reads below run under the read lock the store takes on every shard, so a result spanning several shards
+    //reflects one point in time
+
+    //Items matching the filter in insertion order, driven by the most selective index
+    ShardItems findMatching(ToDoFilter filter) {
+        SlotSet candidates = indexes.plan(filter);
+        Collector matches = new Collector(candidates != null ? candidates.size() : records.size(), false);
+        for (int slot = nextSlot(candidates, 0); slot >= 0; slot = nextSlot(candidates, slot + 1)) {
+            if (records.matches(slot, filter)) {
+                matches.add(records.get(slot), 0, 0, ordinals[slot]);
+            }
+        }
+        return matches.result(matches.size());
+    }
+
+    //Pull based visit of the matching items in insertion order, each chunk is collected under the read lock only
+    //when asked for, so a slow consumer such as a network stream does not hold writers up
+    Iterator<ShardItems> matchingChunks(ToDoFilter filter) {
+        return new ChunkIterator(filter);
+    }
+
+    int count(ToDoFilter filter) {
+        Integer known = knownCount(filter);
+        return known != null ? known : countMatches(filter);
+    }
+
+    private int countMatches(ToDoFilter filter) {
+        int total = 0;
+        SlotSet candidates = indexes.plan(filter);
+        for (int slot = nextSlot(candidates, 0); slot >= 0; slot = nextSlot(candidates, slot + 1)) {
+            if (records.matches(slot, filter)) {
+                total++;
+            }
+        }
+        cacheCount(filter, total);
+        return total;
+    }
+
+    //Count answered by an index size or the cache, null when the matches have to be counted
+    private Integer knownCount(ToDoFilter filter) {
+        if (filter.text() == null) {
+            if (filter.priority() == null && filter.isDone() == null) {
+                return records.size();
+            }
+            if (filter.isDone() == null) {
+                return indexes.priority(filter.priority()).size();
+            }
+            if (filter.priority() == null) {
+                return indexes.status(filter.isDone()).size();
+            }
+        }
+        return counts.get(filter);
+    }
+
+    private void cacheCount(ToDoFilter filter, int total) {
+        if (counts.size() >= MAX_CACHED_COUNTS) {
+            counts.clear();
+        }
+        counts.put(filter, total);
+    }
+
+    //Matching items in sort order, without sorting: the ordered indexes are walked until the page is full. Resumes
+    //right after the cursor position when one is given
+    ShardItems findPage(ToDoFilter filter, ToDoSort sort, ToDoCursor after, int offset, int limit) {
+        int afterSlot = after == null ? ToDoRecords.NO_SLOT : lastSlotUpTo(after.ordinal());
+        Integer known = knownCount(filter);
+        if (after != null && known == null) {
+            known = countMatches(filter);
+        }
+        SlotSet candidates = indexes.plan(filter);
+        boolean selective = candidates != null && candidates.size() <= records.size() / SELECTIVE_FRACTION;
+        if (sort.packed()) {
+            if (selective || sort.field() == ToDoSort.Field.CREATION_DATE) {
+                return sortPacked(filter, sort, candidates, after, afterSlot, offset, limit);
+            }
+            return walkOrderedPacked(filter, sort, candidates, after, afterSlot, offset, limit, known);
+        }
+        if (selective) {
+            return sortCandidates(filter, sort, candidates, after, afterSlot, offset, limit);
+        }
+        return walkOrdered(filter, sort, candidates, after, afterSlot, offset, limit, known);
+    }
+
+    //Single pass over the ordered buckets: fills the page and, when the total is not known yet, counts every match
+    private ShardItems walkOrdered(
+            ToDoFilter filter,
+            ToDoSort sort,
+            SlotSet candidates,
+            ToDoCursor after,
+            int afterSlot,
+            int offset,
+            int limit,
+            Integer total
+    ) {
+        NavigableMap<Long, SlotSet> buckets = indexes.ordered(sort, filter);
+        if (after != null) {
+            buckets = buckets.tailMap(after.key(), true);
+        }
+        // When every item of a bucket matches, the offset can skip it whole
+        boolean wholeBuckets = filter.text() == null && filter.isDone() == null
+                && (filter.priority() == null || sort.field() == ToDoSort.Field.PRIORITY);
+
+        Collector page = new Collector(limit, true);
+        int skip = offset;
+        int matches = 0;
+        for (Map.Entry<Long, SlotSet> bucket : buckets.entrySet()) {
+            if (wholeBuckets && skip >= bucket.getValue().size()) {
+                skip -= bucket.getValue().size();
+                matches += bucket.getValue().size();
+                continue;
+            }
+            long key = bucket.getKey();
+            int from = after != null && key == after.key() ? afterSlot + 1 : 0;
+            for (int slot = bucket.getValue().next(from); slot >= 0; slot = bucket.getValue().next(slot + 1)) {
+                if (candidates != null && !candidates.contains(slot)) {
+                    continue;
+                }
+                if (!records.matches(slot, filter)) {
+                    continue;
+                }
+                matches++;
+                if (skip > 0) {
+                    skip--;
+                } else if (page.size() < limit) {
+                    page.add(records.get(slot), key, 0, ordinals[slot]);
+                    if (page.size() == limit && total != null) {
+                        return page.result(total);
+                    }
+                }
+            }
+        }
+        if (total == null) {
+            total = matches;
+            cacheCount(filter, total);
+        }
+        return page.result(total);
+    }
+
+    //For selective filters: collect the matching candidates and sort their packed positions, O(m log m) in the matches
+    private ShardItems sortCandidates(
+            ToDoFilter filter,
+            ToDoSort sort,
+            SlotSet candidates,
+            ToDoCursor after,
+            int afterSlot,
+            int offset,
+            int limit
+    ) {
+        long[] positions = new long[candidates.size()];
+        int matches = 0;
+        for (int slot = candidates.next(0); slot >= 0; slot = candidates.next(slot + 1)) {
+            if (records.matches(slot, filter)) {
+                positions[matches++] = position(sort, records.sortKey(slot, sort.field()), slot);
+            }
+        }
+        Arrays.sort(positions, 0, matches);
+        cacheCount(filter, matches);
+
+        int from = offset;
+        if (after != null) {
+            // The first position past the cursor, which may sit before every slot of this shard
+            int index = Arrays.binarySearch(positions, 0, matches, position(sort, after.key(), afterSlot + 1));
+            from = index >= 0 ? index : -(index + 1);
+        }
+        int to = (int) Math.min(matches, (long) from + limit);
+        Collector page = new Collector(Math.max(0, to - from), true);
+        for (int i = from; i < to; i++) {
+            int slot = (int) positions[i];
+            page.add(records.get(slot), records.sortKey(slot, sort.field()), 0, ordinals[slot]);
+        }
+        return page.result(matches);
+    }
+
+    //Sort key in the high half and slot in the low half, so a plain long comparison gives the page order
+    private static long position(ToDoSort sort, long key, int slot) {
+        int ordered = key == ToDoIndexes.NO_DUE_DATE ? Integer.MAX_VALUE : (int) key;
+        if (sort.reversed()) {
+            ordered = ~ordered;
+        }
+        return ((long) ordered << 32) | slot;
+    }
+
+    //walkOrdered for sorts on several keys: the buckets of the first key are walked in order and the matches of each
+    //bucket radix sorted on their composed packed keys, stopping at the bucket that fills the page
+    private ShardItems walkOrderedPacked(
+            ToDoFilter filter,
+            ToDoSort sort,
+            SlotSet candidates,
+            ToDoCursor after,
+            int afterSlot,
+            int offset,
+            int limit,
+            Integer total
+    ) {
+        NavigableMap<Long, SlotSet> buckets = indexes.ordered(sort, filter);
+        if (after != null) {
+            buckets = buckets.tailMap(after.key(), true);
+        }
+        boolean wholeBuckets = filter.text() == null && filter.isDone() == null
+                && (filter.priority() == null || sort.field() == ToDoSort.Field.PRIORITY);
+
+        Collector page = new Collector(limit, true);
+        int skip = offset;
+        int matches = 0;
+        long[] keys = new long[0];
+        int[] slots = new int[0];
+        for (Map.Entry<Long, SlotSet> bucket : buckets.entrySet()) {
+            SlotSet bucketSlots = bucket.getValue();
+            if (wholeBuckets && skip >= bucketSlots.size()) {
+                skip -= bucketSlots.size();
+                matches += bucketSlots.size();
+                continue;
+            }
+            boolean resumed = after != null && bucket.getKey() == after.key();
+            if (page.size() == limit) {
+                // The page is full, the rest of the walk only counts
+                for (int slot = bucketSlots.next(0); slot >= 0; slot = bucketSlots.next(slot + 1)) {
+                    if ((candidates == null || candidates.contains(slot)) && records.matches(slot, filter)) {
+                        matches++;
+                    }
+                }
+                continue;
+            }
+            if (keys.length < bucketSlots.size()) {
+                keys = new long[bucketSlots.size()];
+                slots = new int[bucketSlots.size()];
+            }
+            int found = 0;
+            for (int slot = bucketSlots.next(0); slot >= 0; slot = bucketSlots.next(slot + 1)) {
+                if ((candidates == null || candidates.contains(slot)) && records.matches(slot, filter)) {
+                    keys[found] = sort.compose(records.packedKey(slot));
+                    slots[found++] = slot;
+                }
+            }
+            PackedSort.sort(keys, slots, found);
+            int from = resumed ? PackedSort.after(keys, slots, found, after.packed(), afterSlot) : 0;
+            matches += found - from;
+            if (skip >= found - from) {
+                skip -= found - from;
+                continue;
+            }
+            for (int i = from + skip; i < found && page.size() < limit; i++) {
+                page.add(records.get(slots[i]), bucket.getKey(), keys[i], ordinals[slots[i]]);
+            }
+            skip = 0;
+            if (page.size() == limit && total != null) {
+                return page.result(total);
+            }
+        }
+        if (total == null) {
+            total = matches;
+            cacheCount(filter, total);
+        }
+        return page.result(total);
+    }
+
+    //For selective filters and sorts led by a key no index orders: collect every match with its composed packed key
+    //and radix sort them
+    private ShardItems sortPacked(
+            ToDoFilter filter,
+            ToDoSort sort,
+            SlotSet candidates,
+            ToDoCursor after,
+            int afterSlot,
+            int offset,
+            int limit
+    ) {
+        int capacity = candidates != null ? candidates.size() : records.slots();
+        long[] keys = new long[capacity];
+        int[] slots = new int[capacity];
+        int matches = 0;
+        for (int slot = nextSlot(candidates, 0); slot >= 0; slot = nextSlot(candidates, slot + 1)) {
+            if (records.matches(slot, filter)) {
+                keys[matches] = sort.compose(records.packedKey(slot));
+                slots[matches++] = slot;
+            }
+        }
+        PackedSort.sort(keys, slots, matches);
+        cacheCount(filter, matches);
+
+        int from = after != null ? PackedSort.after(keys, slots, matches, after.packed(), afterSlot) : offset;
+        int to = (int) Math.min(matches, (long) from + limit);
+        Collector page = new Collector(Math.max(0, to - from), true);
+        for (int i = from; i < to; i++) {
+            page.add(records.get(slots[i]), records.sortKey(slots[i], sort.field()), keys[i], ordinals[slots[i]]);
+        }
+        return page.result(matches);
+    }
+
+    //Undone items due from the first day to the last, both inclusive, in due date order and insertion order within a
+    //day, keyed by their epoch day. Only the day buckets in range are visited, and the total comes from their sizes
+    ShardItems findUndoneDue(long fromDay, long toDay, int limit) {
+        Collector due = new Collector(limit, true);
+        int total = 0;
+        for (Map.Entry<Long, SlotSet> day : indexes.dueBetween(fromDay, toDay, true).entrySet()) {
+            SlotSet bucket = day.getValue();
+            total += bucket.size();
+            for (int slot = bucket.next(0); slot >= 0 && due.size() < limit; slot = bucket.next(slot + 1)) {
+                due.add(records.get(slot), day.getKey(), 0, ordinals[slot]);
+            }
+        }
+        return due.result(total);
+    }
+
+    //Items due on each day from the first to the last, both inclusive, leaving out the days without any
+    List<DueDateCount> dueDateCounts(long fromDay, long toDay) {
+        NavigableMap<Long, SlotSet> undone = indexes.dueBetween(fromDay, toDay, true);
+        List<DueDateCount> dueCounts = new ArrayList<>();
+        for (Map.Entry<Long, SlotSet> day : indexes.dueBetween(fromDay, toDay, false).entrySet()) {
+            SlotSet undoneOfDay = undone.get(day.getKey());
+            dueCounts.add(new DueDateCount(LocalDate.ofEpochDay(day.getKey()), day.getValue().size(),
+                    undoneOfDay == null ? 0 : undoneOfDay.size()));
+        }
+        return dueCounts;
+    }
+
+    int size() {
+        return records.size();
+    }
+
+    StoreStats stats() {
+        return new StoreStats(records.size(), records.slots(), holes, generation,
+                indexes.status(true).size(), indexes.dueDateBuckets(), indexes.textGrams(), counts.size());
+    }
+
+    //Adds the item, or replaces the one with its id, and publishes the change
+    ToDo save(ToDo item) {
+        lock.writeLock().lock();
+        try {
+            boolean replaced = records.slotOf(item.getId()) != ToDoRecords.NO_SLOT;
+            int slot = put(item);
+            records.setVersion(slot, store.publish(replaced ? ToDoChange.Type.UPDATED : ToDoChange.Type.CREATED, item));
+            return item;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Applies the mutation while holding the write lock so concurrent writers never interleave on an item,
+    //the mutation returns whether it changed anything so no-op calls are not published
+    Optional<ToDo> update(String id, ToDoChange.Type type, Predicate<ToDo> mutation) {
+        lock.writeLock().lock();
+        try {
+            int slot = records.slotOf(id);
+            if (slot == ToDoRecords.NO_SLOT) {
+                return Optional.empty();
+            }
+            ToDo item = records.get(slot);
+            indexes.remove(slot, item);
+            boolean changed;
+            try {
+                changed = mutation.test(item);
+            } finally {
+                // Columnar records hand out copies, so the mutated item is written back
+                records.set(slot, item);
+                indexes.add(slot, item);
+                counts.clear();
+            }
+            if (changed) {
+                records.setVersion(slot, store.publish(type, item));
+            }
+            return Optional.of(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Optional<ToDo> delete(String id) {
+        lock.writeLock().lock();
+        try {
+            Optional<ToDo> removed = remove(id);
+            removed.ifPresent(item -> store.publish(ToDoChange.Type.DELETED, item));
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //Applies a change recorded elsewhere, keeping its sequence and without notifying the listeners
+    void replay(ToDoChange change) {
+        lock.writeLock().lock();
+        try {
+            if (change.type() == ToDoChange.Type.DELETED) {
+                remove(change.item().getId());
+            } else {
+                records.setVersion(put(change.item()), change.sequence());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int put(ToDo item) {
+        int slot = records.slotOf(item.getId());
+        if (slot != ToDoRecords.NO_SLOT) {
+            indexes.remove(slot, records.get(slot));
+            records.set(slot, item);
+        } else {
+            slot = records.add(item);
+            if (slot == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, slot * 2);
+            }
+            ordinals[slot] = store.nextOrdinal();
+        }
+        indexes.add(slot, item);
+        counts.clear();
+        return slot;
+    }
+
+    private Optional<ToDo> remove(String id) {
+        int slot = records.slotOf(id);
+        if (slot == ToDoRecords.NO_SLOT) {
+            return Optional.empty();
+        }
+        ToDo item = records.get(slot);
+        indexes.remove(slot, item);
+        records.remove(slot);
+        counts.clear();
+        holes++;
+        if (holes >= MIN_HOLES_TO_COMPACT && holes > records.size()) {
+            compact();
+        }
+        return Optional.of(item);
+    }
+
+    //Renumbers the live items into a dense slot range, keeping their relative order and ordinals
+    private void compact() {
+        long[] compactedOrdinals = new long[Math.max(1024, records.size())];
+        int live = 0;
+        for (int slot = 0; slot < records.slots(); slot++) {
+            if (records.isLive(slot)) {
+                compactedOrdinals[live++] = ordinals[slot];
+            }
+        }
+        ToDoRecords compacted = records.compacted();
+        indexes.clear();
+        for (int slot = 0; slot < compacted.slots(); slot++) {
+            indexes.add(slot, compacted.get(slot));
+        }
+        records = compacted;
+        ordinals = compactedOrdinals;
+        holes = 0;
+        generation++;
+    }
+
+    //Last slot whose item was inserted at or before the ordinal, NO_SLOT when there is none. Ordinals grow with the
+    //slot, so this is where a position of the store maps into the shard, whichever shard it came from
+    private int lastSlotUpTo(long ordinal) {
+        int low = 0;
+        int high = records.slots();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ordinals[middle] <= ordinal) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low - 1;
+    }
+
+    //Next slot from the candidates, or from every slot when there are none, -1 past the end
+    private int nextSlot(SlotSet candidates, int from) {
+        if (candidates != null) {
+            return candidates.next(from);
+        }
+        return from < records.slots() ? from : -1;
+    }
+
+    //Items in result order with their keys, growing as they are added
+    private static final class Collector {
+
+        private final List<ToDo> items;
+        private final boolean keyed;
+        private long[] keys;
+        private long[] packed;
+        private long[] ordinals;
+
+        Collector(int capacity, boolean keyed) {
+            capacity = Math.min(capacity, 1024);
+            this.items = new ArrayList<>(capacity);
+            this.keyed = keyed;
+            this.keys = keyed ? new long[capacity] : null;
+            this.packed = keyed ? new long[capacity] : null;
+            this.ordinals = new long[capacity];
+        }
+
+        void add(ToDo item, long key, long packedKey, long ordinal) {
+            int index = items.size();
+            if (index == ordinals.length) {
+                int capacity = Math.max(16, index * 2);
+                ordinals = Arrays.copyOf(ordinals, capacity);
+                if (keyed) {
+                    keys = Arrays.copyOf(keys, capacity);
+                    packed = Arrays.copyOf(packed, capacity);
+                }
+            }
+            items.add(item);
+            ordinals[index] = ordinal;
+            if (keyed) {
+                keys[index] = key;
+                packed[index] = packedKey;
+            }
+        }
+
+        int size() {
+            return items.size();
+        }
+
+        ShardItems result(int total) {
+            return new ShardItems(items, keys, packed, ordinals, total);
+        }
+    }
+
+    private class ChunkIterator implements Iterator<ShardItems> {
+
+        private final ToDoFilter filter;
+        private int nextSlot = 0;
+        private int chunkGeneration = -1;
+        // Ordinal of the last slot the walk went past, items deleted since then do not matter
+        private long visitedUpTo = -1;
+        private boolean exhausted = false;
+        private ShardItems next;
+
+        ChunkIterator(ToDoFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !exhausted) {
+                ShardItems chunk = collect();
+                if (!chunk.items().isEmpty()) {
+                    next = chunk;
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ShardItems next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ShardItems chunk = next;
+            next = null;
+            return chunk;
+        }
+
+        private ShardItems collect() {
+            Collector chunk = new Collector(VISIT_CHUNK, false);
+            lock.readLock().lock();
+            try {
+                if (chunkGeneration != -1 && chunkGeneration != generation) {
+                    // Compaction keeps the ordinals of the live items, so the walk resumes after the last one it went
+                    // past, even when that item has been deleted since
+                    nextSlot = lastSlotUpTo(visitedUpTo) + 1;
+                }
+                chunkGeneration = generation;
+                SlotSet candidates = indexes.plan(filter);
+                int slot = nextSlot;
+                while (chunk.size() < VISIT_CHUNK) {
+                    if (candidates != null) {
+                        slot = candidates.next(slot);
+                    }
+                    if (slot < 0 || slot >= records.slots()) {
+                        exhausted = true;
+                        break;
+                    }
+                    if (records.isLive(slot) && records.matches(slot, filter)) {
+                        chunk.add(records.get(slot), 0, 0, ordinals[slot]);
+                    }
+                    slot++;
+                }
+                nextSlot = slot;
+                int visited = Math.min(slot, records.slots());
+                if (visited > 0) {
+                    visitedUpTo = Math.max(visitedUpTo, ordinals[visited - 1]);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            return chunk.result(chunk.size());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+//Ordered sort keys, the first one deciding and each later one breaking the ties of the ones before it. Items that
+//tie on every key keep their insertion order
+public record ToDoSort(List<Key> keys) {
+
+    public static final ToDoSort DEFAULT = new ToDoSort(Field.PRIORITY, false);
+
+    public ToDoSort {
+        keys = List.copyOf(keys);
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("A sort needs at least one key");
+        }
+    }
+
+    public ToDoSort(Field field, boolean reversed) {
+        this(List.of(new Key(field, reversed)));
+    }
+
+    //sortBy is a comma separated list of priority, dueDate and creationDate, each optionally followed by :asc or
+    //:desc. Same rules the list endpoint always used: priority when nothing is given, and "asc" flips the natural
+    //order (high priority, earliest due date and oldest item first), with order applying to keys without their own
+    public static ToDoSort of(String sortBy, String order) {
+        if (sortBy == null || sortBy.isBlank()) {
+            return new ToDoSort(Field.PRIORITY, "asc".equalsIgnoreCase(order));
+        }
+        List<Key> keys = new ArrayList<>();
+        for (String part : sortBy.split(",")) {
+            String[] fieldAndOrder = part.trim().split(":", -1);
+            if (fieldAndOrder.length > 2) {
+                throw invalidSortBy();
+            }
+            Field field = Field.parse(fieldAndOrder[0]);
+            String direction = fieldAndOrder.length == 2 ? fieldAndOrder[1] : order;
+            if (fieldAndOrder.length == 2 && !direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+                throw new IllegalArgumentException("Invalid order '" + direction + "' in 'sortBy', use asc or desc");
+            }
+            if (keys.stream().anyMatch(key -> key.field() == field)) {
+                throw new IllegalArgumentException("'sortBy' lists " + fieldAndOrder[0] + " more than once");
+            }
+            keys.add(new Key(field, "asc".equalsIgnoreCase(direction)));
+        }
+        return new ToDoSort(keys);
+    }
+
+    private static IllegalArgumentException invalidSortBy() {
+        return new IllegalArgumentException("Invalid value for 'sortBy'. Accepted values are a comma separated list "
+                + "of 'priority', 'dueDate' or 'creationDate', each optionally followed by ':asc' or ':desc'");
+    }
+
+    //The first key, the one the ordered indexes can walk
+    public Field field() {
+        return keys.get(0).field();
+    }
+
+    public boolean reversed() {
+        return keys.get(0).reversed();
+    }
+
+    //Sorts the ordered indexes cannot serve alone, they compare the packed keys of the items
+    boolean packed() {
+        return keys.size() > 1 || field() == Field.CREATION_DATE;
+    }
+
+    //Every key of the sort folded into one non-negative long from the item's packed key, so comparing two of them
+    //compares the items on all keys at once
+    long compose(long packedKey) {
+        long composed = 0;
+        for (Key key : keys) {
+            long value = key.field().of(packedKey);
+            composed = (composed << key.field().bits) | (key.reversed() ? key.field().max() - value : value);
+        }
+        return composed;
+    }
+
+    public record Key(Field field, boolean reversed) {
+    }
+
+    //Where each field sits in an item's packed key, the 58 bits of priority, due date and creation second in their
+    //natural order. A missing priority or due date sorts after every present one
+    public enum Field {
+        PRIORITY(2, 56), DUE_DATE(22, 34), CREATION_DATE(34, 0);
+
+        private final int bits;
+        private final int shift;
+
+        Field(int bits, int shift) {
+            this.bits = bits;
+            this.shift = shift;
+        }
+
+        long max() {
+            return (1L << bits) - 1;
+        }
+
+        long of(long packedKey) {
+            return (packedKey >>> shift) & max();
+        }
+
+        private static Field parse(String name) {
+            return switch (name.toLowerCase()) {
+                case "priority" -> PRIORITY;
+                case "duedate" -> DUE_DATE;
+                case "creationdate" -> CREATION_DATE;
+                default -> throw invalidSortBy();
+            };
+        }
+    }
+
+    //The packed key of an item from its fields: priority ordinal, epoch day and epoch second, each clamped to its bits
+    static long pack(ToDo.Priority priority, LocalDate dueDate, LocalDateTime creationDate) {
+        return pack(priority == null ? -1 : priority.ordinal(),
+                dueDate == null ? Long.MAX_VALUE : dueDate.toEpochDay(),
+                creationDate == null ? 0 : creationDate.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    //Same from the raw numbers, with a negative priority and Long.MAX_VALUE as the due day of an item without them
+    static long pack(int priority, long dueDay, long creationSecond) {
+        long priorityValue = priority < 0 ? Field.PRIORITY.max() : priority;
+        long dueValue = dueDay == Long.MAX_VALUE ? Field.DUE_DATE.max() : clamp(dueDay, Field.DUE_DATE.max() - 1);
+        return (priorityValue << Field.PRIORITY.shift)
+                | (dueValue << Field.DUE_DATE.shift)
+                | (clamp(creationSecond, Field.CREATION_DATE.max()) << Field.CREATION_DATE.shift);
+    }
+
+    private static long clamp(long value, long max) {
+        return Math.max(0, Math.min(value, max));
+    }
+}
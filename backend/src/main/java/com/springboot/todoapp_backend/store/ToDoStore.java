@@ -0,0 +1,452 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+//The items partitioned by id into shards, each with its own lock, so a write only ever waits on writes to its own
+//shard. Reads that span the shards scan them side by side and merge their ordered partial results
+public class ToDoStore {
+
+    // Below this many items the shards are scanned one after the other, forking would cost more than it saves
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    private final ToDoShard[] shards;
+
+    // Store-wide insertion order, handed to every new item so results from several shards merge back into it
+    private final AtomicLong ordinals = new AtomicLong();
+
+    // Changes of different shards are numbered one at a time, always taken after the shard lock
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // Sequence of the last change applied, only written under the publish lock
+    private volatile long sequence = 0;
+
+    private final List<ToDoChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    public enum Layout {
+        //The ToDo objects themselves, returned as they are and found by id without taking the lock
+        OBJECTS,
+        //Primitive columns, several times smaller, with a ToDo built for every item handed out
+        COLUMNAR
+    }
+
+    public ToDoStore() {
+        this(Layout.OBJECTS);
+    }
+
+    public ToDoStore(Layout layout) {
+        this(layout, 1);
+    }
+
+    public ToDoStore(Layout layout, int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("The store needs at least one shard, not " + shards);
+        }
+        this.shards = new ToDoShard[shards];
+        for (int i = 0; i < shards; i++) {
+            this.shards[i] = new ToDoShard(this, layout);
+        }
+    }
+
+    public int shards() {
+        return shards.length;
+    }
+
+    private ToDoShard shardOf(String id) {
+        if (shards.length == 1) {
+            return shards[0];
+        }
+        int hash = id.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
+    public Optional<ToDo> findById(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return shardOf(id).findById(id);
+    }
+
+    //Snapshot of every item in insertion order
+    public List<ToDo> findAll() {
+        return findMatching(ToDoFilter.ALL);
+    }
+
+    //Items matching the filter in insertion order, driven by the most selective index
+    public List<ToDo> findMatching(ToDoFilter filter) {
+        List<ShardItems> parts = scatter(shard -> shard.findMatching(filter));
+        if (parts.size() == 1) {
+            return parts.get(0).items();
+        }
+        int total = parts.stream().mapToInt(ShardItems::total).sum();
+        List<ToDo> items = new ArrayList<>(total);
+        merge(parts, false, false, 0, total, (part, index) -> items.add(part.items().get(index)));
+        return items;
+    }
+
+    //Visits the matching items in insertion order without copying them into one list. The read lock is only held
+    //while a chunk is collected, so a slow consumer such as a network stream does not hold writers up
+    public void forEachMatching(ToDoFilter filter, Consumer<ToDo> action) {
+        Iterator<List<ToDo>> chunks = matchingChunks(filter);
+        while (chunks.hasNext()) {
+            chunks.next().forEach(action);
+        }
+    }
+
+    //Pull based form of forEachMatching, each chunk is collected under the read lock only when asked for
+    public Iterator<List<ToDo>> matchingChunks(ToDoFilter filter) {
+        if (shards.length == 1) {
+            Iterator<ShardItems> chunks = shards[0].matchingChunks(filter);
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return chunks.hasNext();
+                }
+
+                @Override
+                public List<ToDo> next() {
+                    return chunks.next().items();
+                }
+            };
+        }
+        return new MergingChunkIterator(filter);
+    }
+
+    public int count(ToDoFilter filter) {
+        return scatter(shard -> shard.count(filter)).stream().mapToInt(Integer::intValue).sum();
+    }
+
+    //Page of matching items in sort order, without sorting: every shard walks its ordered indexes until its part of
+    //the page is full and the parts are merged
+    public ToDoPage findPage(ToDoFilter filter, ToDoSort sort, int offset, int limit) {
+        return gather(filter, sort, null, offset, limit);
+    }
+
+    //Keyset variant of findPage that resumes right after the item the cursor points to
+    public ToDoPage findPageAfter(ToDoFilter filter, ToDoSort sort, String cursor, int limit) {
+        ToDoCursor after = ToDoCursor.decode(cursor);
+        if (!after.sort().equals(sort)) {
+            throw new IllegalArgumentException("The cursor does not match the requested sort");
+        }
+        return gather(filter, sort, after, 0, limit);
+    }
+
+    //Any item of the page can come from any shard, so every shard is asked for the offset and the page plus one,
+    //the extra item telling whether a next page exists. A single shard applies the offset itself
+    private ToDoPage gather(ToDoFilter filter, ToDoSort sort, ToDoCursor after, int offset, int limit) {
+        int shardOffset = shards.length == 1 ? offset : 0;
+        int shardLimit = (int) Math.min(Integer.MAX_VALUE, (long) offset - shardOffset + limit + 1);
+        List<ShardItems> parts = scatter(shard -> shard.findPage(filter, sort, after, shardOffset, shardLimit));
+
+        int total = parts.stream().mapToInt(ShardItems::total).sum();
+        List<ToDo> items = new ArrayList<>(Math.min(limit, 1024));
+        ToDoCursor[] last = new ToDoCursor[1];
+        boolean more = merge(parts, true, sort.reversed(), offset - shardOffset, limit, (part, index) -> {
+            items.add(part.items().get(index));
+            last[0] = new ToDoCursor(sort, part.keys()[index], part.packed()[index], part.ordinals()[index]);
+        });
+        return new ToDoPage(items, total, more ? last[0].encode() : null);
+    }
+
+    //Undone items due from the first day to the last, both inclusive, in due date order and insertion order within a
+    //day. A null first day takes every earlier due date too. Only the day buckets in range are visited, and the total
+    //comes from their sizes, so the cost follows the number of due days and returned items, not the store size
+    public ToDoPage findUndoneDue(LocalDate from, LocalDate to, int limit) {
+        long fromDay = from == null ? Long.MIN_VALUE : from.toEpochDay();
+        List<ShardItems> parts = scatter(shard -> shard.findUndoneDue(fromDay, to.toEpochDay(), limit));
+        int total = parts.stream().mapToInt(ShardItems::total).sum();
+        List<ToDo> items = new ArrayList<>(Math.min(limit, 1024));
+        merge(parts, true, false, 0, limit, (part, index) -> items.add(part.items().get(index)));
+        return new ToDoPage(items, total, null);
+    }
+
+    //Items due on each day from the first to the last, both inclusive, leaving out the days without any
+    public List<DueDateCount> dueDateCounts(LocalDate from, LocalDate to) {
+        List<List<DueDateCount>> parts = scatter(shard -> shard.dueDateCounts(from.toEpochDay(), to.toEpochDay()));
+        if (parts.size() == 1) {
+            return parts.get(0);
+        }
+        Map<LocalDate, DueDateCount> byDate = new TreeMap<>();
+        for (List<DueDateCount> part : parts) {
+            for (DueDateCount count : part) {
+                byDate.merge(count.date(), count, (a, b) ->
+                        new DueDateCount(a.date(), a.total() + b.total(), a.undone() + b.undone()));
+            }
+        }
+        return new ArrayList<>(byDate.values());
+    }
+
+    public int size() {
+        int size = 0;
+        for (ToDoShard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    //Sizes of the slot tables and the indexes summed over the shards, for monitoring
+    public StoreStats stats() {
+        List<StoreStats> parts = scatter(ToDoShard::stats);
+        return parts.stream().reduce((a, b) -> new StoreStats(a.items() + b.items(), a.slots() + b.slots(),
+                a.holes() + b.holes(), a.generation() + b.generation(), a.doneItems() + b.doneItems(),
+                a.dueDateBuckets() + b.dueDateBuckets(), a.textGrams() + b.textGrams(),
+                a.cachedCounts() + b.cachedCounts())).orElseThrow();
+    }
+
+    public long sequence() {
+        return sequence;
+    }
+
+    //Sequence of the last change to the item, 0 when there is no such item
+    public long versionOf(String id) {
+        if (id == null) {
+            return 0;
+        }
+        return shardOf(id).versionOf(id);
+    }
+
+    public void addListener(ToDoChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    //Every item together with the sequence they reflect, later changes all have a higher sequence
+    public StoreSnapshot snapshot() {
+        lockAll(true);
+        try {
+            return new StoreSnapshot(findAll(), sequence);
+        } finally {
+            unlockAll(true);
+        }
+    }
+
+    public ToDo save(ToDo item) {
+        return shardOf(item.getId()).save(item);
+    }
+
+    //Runs several writes as one critical section, readers see either none or all of them
+    public <T> T inBatch(Supplier<T> writes) {
+        lockAll(false);
+        try {
+            return writes.get();
+        } finally {
+            unlockAll(false);
+        }
+    }
+
+    public Optional<ToDo> update(String id, Consumer<ToDo> mutation) {
+        return update(id, ToDoChange.Type.UPDATED, todo -> {
+            mutation.accept(todo);
+            return true;
+        });
+    }
+
+    //Applies the mutation while holding the write lock so concurrent writers never interleave on an item,
+    //the mutation returns whether it changed anything so no-op calls are not published
+    public Optional<ToDo> update(String id, ToDoChange.Type type, Predicate<ToDo> mutation) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return shardOf(id).update(id, type, mutation);
+    }
+
+    public Optional<ToDo> delete(String id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        return shardOf(id).delete(id);
+    }
+
+    //Applies a change recorded elsewhere, keeping its sequence and without notifying the listeners
+    public void replay(ToDoChange change) {
+        shardOf(change.item().getId()).replay(change);
+        publishLock.lock();
+        try {
+            sequence = Math.max(sequence, change.sequence());
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    //Numbers the change and notifies the listeners, called by the shard holding its write lock
+    long publish(ToDoChange.Type type, ToDo item) {
+        publishLock.lock();
+        try {
+            ToDoChange change = new ToDoChange(++sequence, type, item);
+            for (ToDoChangeListener listener : listeners) {
+                listener.onChange(change);
+            }
+            return change.sequence();
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    long nextOrdinal() {
+        return ordinals.incrementAndGet();
+    }
+
+    //Runs the read on every shard while holding all their read locks, so the parts reflect one point in time. Large
+    //stores fork the shards onto the common pool, the workers do not lock since the caller already holds the locks
+    private <T> List<T> scatter(Function<ToDoShard, T> read) {
+        lockAll(true);
+        try {
+            if (shards.length == 1) {
+                return List.of(read.apply(shards[0]));
+            }
+            if (size() < PARALLEL_THRESHOLD) {
+                return Arrays.stream(shards).map(read).toList();
+            }
+            return Arrays.stream(shards).parallel().map(read).toList();
+        } finally {
+            unlockAll(true);
+        }
+    }
+
+    // Always in shard order, so two callers locking every shard never wait on each other crosswise
+    private void lockAll(boolean read) {
+        for (ToDoShard shard : shards) {
+            (read ? shard.lock().readLock() : shard.lock().writeLock()).lock();
+        }
+    }
+
+    private void unlockAll(boolean read) {
+        for (int i = shards.length - 1; i >= 0; i--) {
+            (read ? shards[i].lock().readLock() : shards[i].lock().writeLock()).unlock();
+        }
+    }
+
+    //k-way merge of the ordered parts, skipping the first items and handing over up to limit more. The smallest head
+    //is found by a linear scan, cheaper than a heap for the handful of shards there are. Returns whether items were
+    //left over
+    private static boolean merge(List<ShardItems> parts, boolean keyed, boolean reversed, int skip, int limit,
+                                 MergeTarget target) {
+        int[] heads = new int[parts.size()];
+        int taken = 0;
+        while (true) {
+            int smallest = -1;
+            for (int i = 0; i < heads.length; i++) {
+                if (heads[i] < parts.get(i).items().size() && (smallest < 0
+                        || compare(parts.get(i), heads[i], parts.get(smallest), heads[smallest], keyed, reversed) < 0)) {
+                    smallest = i;
+                }
+            }
+            if (smallest < 0) {
+                return false;
+            }
+            if (skip > 0) {
+                skip--;
+            } else if (taken == limit) {
+                return true;
+            } else {
+                target.take(parts.get(smallest), heads[smallest]);
+                taken++;
+            }
+            heads[smallest]++;
+        }
+    }
+
+    // Bucket key first, then the packed key of sorts on several keys, with the insertion order breaking the ties
+    private static int compare(ShardItems a, int i, ShardItems b, int j, boolean keyed, boolean reversed) {
+        if (keyed) {
+            int byKey = Long.compare(a.keys()[i], b.keys()[j]);
+            if (byKey != 0) {
+                return reversed ? -byKey : byKey;
+            }
+            int byPacked = Long.compare(a.packed()[i], b.packed()[j]);
+            if (byPacked != 0) {
+                return byPacked;
+            }
+        }
+        return Long.compare(a.ordinals()[i], b.ordinals()[j]);
+    }
+
+    private interface MergeTarget {
+        void take(ShardItems part, int index);
+    }
+
+    //Merges the chunk visits of the shards back into insertion order. Shard chunks are buffered until merged, so
+    //items deleted in the meantime are dropped on the way out, as a single shard would not have visited them
+    private class MergingChunkIterator implements Iterator<List<ToDo>> {
+
+        private final List<Iterator<ShardItems>> visits = new ArrayList<>();
+        private final ShardItems[] chunks;
+        private final int[] heads;
+        private List<ToDo> next;
+
+        MergingChunkIterator(ToDoFilter filter) {
+            for (ToDoShard shard : shards) {
+                visits.add(shard.matchingChunks(filter));
+            }
+            chunks = new ShardItems[shards.length];
+            heads = new int[shards.length];
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null) {
+                List<ToDo> chunk = collect();
+                if (chunk == null) {
+                    return false;
+                }
+                if (!chunk.isEmpty()) {
+                    next = chunk;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public List<ToDo> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<ToDo> chunk = next;
+            next = null;
+            return chunk;
+        }
+
+        //Up to a chunk of merged items, null once every shard is exhausted
+        private List<ToDo> collect() {
+            List<ToDo> chunk = new ArrayList<>(ToDoShard.VISIT_CHUNK);
+            boolean any = false;
+            while (chunk.size() < ToDoShard.VISIT_CHUNK) {
+                int smallest = -1;
+                for (int i = 0; i < chunks.length; i++) {
+                    if (chunks[i] == null || heads[i] == chunks[i].items().size()) {
+                        chunks[i] = visits.get(i).hasNext() ? visits.get(i).next() : null;
+                        heads[i] = 0;
+                    }
+                    if (chunks[i] != null && (smallest < 0
+                            || chunks[i].ordinals()[heads[i]] < chunks[smallest].ordinals()[heads[smallest]])) {
+                        smallest = i;
+                    }
+                }
+                if (smallest < 0) {
+                    break;
+                }
+                any = true;
+                ToDo item = chunks[smallest].items().get(heads[smallest]++);
+                if (shards[smallest].contains(item.getId())) {
+                    chunk.add(item);
+                }
+            }
+            return any ? chunk : null;
+        }
+    }
+}
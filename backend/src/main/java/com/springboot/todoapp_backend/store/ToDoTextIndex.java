@@ -0,0 +1,69 @@
+package com.springboot.todoapp_backend.store;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+//Trigram inverted index over the lowercased item text, used to narrow substring searches to a few candidates
+class ToDoTextIndex {
+
+    static final int GRAM_LENGTH = 3;
+
+    private static final SlotSet NO_CANDIDATES = new SlotSet();
+
+    private final Map<Long, SlotSet> postings = new HashMap<>();
+
+    void add(int slot, String text) {
+        if (text != null) {
+            forEachGram(text.toLowerCase(), gram -> postings.computeIfAbsent(gram, key -> new SlotSet()).add(slot));
+        }
+    }
+
+    void remove(int slot, String text) {
+        if (text != null) {
+            forEachGram(text.toLowerCase(), gram -> {
+                SlotSet posting = postings.get(gram);
+                if (posting != null && posting.remove(slot) && posting.isEmpty()) {
+                    postings.remove(gram);
+                }
+            });
+        }
+    }
+
+    int grams() {
+        return postings.size();
+    }
+
+    void clear() {
+        postings.clear();
+    }
+
+    //Smallest posting list among the query trigrams, null when the query is too short for the index
+    SlotSet candidates(String lowerCaseQuery) {
+        if (lowerCaseQuery.length() < GRAM_LENGTH) {
+            return null;
+        }
+        SlotSet best = null;
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseQuery.length(); i++) {
+            SlotSet posting = postings.get(gram(lowerCaseQuery, i));
+            if (posting == null) {
+                return NO_CANDIDATES;
+            }
+            if (best == null || posting.size() < best.size()) {
+                best = posting;
+            }
+        }
+        return best;
+    }
+
+    private static void forEachGram(String lowerCaseText, LongConsumer action) {
+        for (int i = 0; i + GRAM_LENGTH <= lowerCaseText.length(); i++) {
+            action.accept(gram(lowerCaseText, i));
+        }
+    }
+
+    //Packs three UTF-16 chars into one key so lookups never allocate substrings
+    private static long gram(String text, int start) {
+        return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+    }
+}
@@ -0,0 +1,113 @@
+package com.springboot.todoapp_backend;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.todoapp_backend.controller.FollowerInterceptor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//A leader and a follower on localhost, each on a free port
+public class ReplicationTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ConfigurableApplicationContext leader;
+    private ConfigurableApplicationContext follower;
+    private String leaderUrl;
+    private String followerUrl;
+
+    @BeforeEach
+    void setUp() {
+        leader = start("--todoapp.replication.role=leader");
+        leaderUrl = url(leader);
+        follower = start("--todoapp.replication.role=follower", "--todoapp.replication.leader-url=" + leaderUrl,
+                "--todoapp.replication.poll-wait-ms=200");
+        followerUrl = url(follower);
+    }
+
+    @AfterEach
+    void tearDown() {
+        follower.close();
+        leader.close();
+    }
+
+    private static ConfigurableApplicationContext start(String... args) {
+        return new SpringApplicationBuilder(TodoappBackendApplication.class).run(
+                concat(args, "--server.port=0", "--todoapp.store.shards=2"));
+    }
+
+    private static String[] concat(String[] args, String... more) {
+        String[] all = new String[args.length + more.length];
+        System.arraycopy(args, 0, all, 0, args.length);
+        System.arraycopy(more, 0, all, args.length, more.length);
+        return all;
+    }
+
+    private static String url(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    private HttpResponse<String> send(String method, String url, String json) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url));
+        if (json != null) {
+            request.header("Content-Type", "application/json");
+        }
+        request.method(method, json == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> awaitFollower(String path, Predicate<HttpResponse<String>> done) throws Exception {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            HttpResponse<String> response = send("GET", followerUrl + path, null);
+            if (done.test(response) || System.currentTimeMillis() > deadline) {
+                return response;
+            }
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    void testFollowerServesTheLeadersChanges() throws Exception {
+        HttpResponse<String> created = send("POST", leaderUrl + "/todos",
+                "{\"text\":\"Replicated task\",\"priority\":\"HIGH\"}");
+        assertEquals(201, created.statusCode());
+        String id = objectMapper.readTree(created.body()).path("data").path("id").asText();
+        assertEquals(200, send("POST", leaderUrl + "/todos/" + id + "/done", null).statusCode());
+
+        HttpResponse<String> item = awaitFollower("/todos/" + id,
+                response -> response.statusCode() == 200 && response.body().contains("\"done\":true"));
+        JsonNode replicated = objectMapper.readTree(item.body());
+        assertEquals("Replicated task", replicated.path("text").asText());
+        assertTrue(replicated.path("done").asBoolean());
+        assertTrue(item.headers().firstValue(FollowerInterceptor.LAG_HEADER).isPresent());
+
+        HttpResponse<String> write = send("DELETE", followerUrl + "/todos/" + id, null);
+        assertEquals(307, write.statusCode());
+        assertEquals(leaderUrl + "/todos/" + id, write.headers().firstValue("Location").orElseThrow());
+
+        assertEquals(200, send("DELETE", leaderUrl + "/todos/" + id, null).statusCode());
+        assertEquals(404, awaitFollower("/todos/" + id, response -> response.statusCode() == 404).statusCode());
+    }
+
+    @Test
+    void testLeaderSendsFollowersAheadOfItsLogToASnapshot() throws Exception {
+        assertEquals(410, send("GET", leaderUrl + "/replication/changes?after=1000", null).statusCode());
+
+        HttpResponse<String> snapshot = send("GET", leaderUrl + "/replication/snapshot", null);
+        assertEquals(200, snapshot.statusCode());
+        assertEquals(0, objectMapper.readTree(snapshot.body()).path("sequence").asLong());
+    }
+}
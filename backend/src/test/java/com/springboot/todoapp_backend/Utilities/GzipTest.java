@@ -0,0 +1,42 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GzipTest {
+
+    private static byte[] gunzip(byte[] gzipped) throws Exception {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    void testReadByGzipInputStream() throws Exception {
+        // Larger than the first buffer even compressed, so the pooled buffer has to grow
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; text.length() < 200000; i++) {
+            text.append("{\"id\":\"").append(Integer.toHexString(i * 7919)).append("\",\"done\":").append(i % 3 == 0).append('}');
+        }
+        for (byte[] data : new byte[][]{new byte[0], "[]".getBytes(StandardCharsets.UTF_8),
+                text.toString().getBytes(StandardCharsets.UTF_8)}) {
+            assertArrayEquals(data, gunzip(Gzip.compress(data)));
+        }
+    }
+
+    @Test
+    void testAcceptEncoding() {
+        assertFalse(Gzip.accepted(null));
+        assertTrue(Gzip.accepted("gzip, deflate, br"));
+        assertTrue(Gzip.accepted("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(Gzip.accepted("*"));
+        assertFalse(Gzip.accepted("identity"));
+        assertFalse(Gzip.accepted("gzip;q=0"));
+        assertFalse(Gzip.accepted("gzip;q=0.000, *"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.springboot.todoapp_backend.Utilities;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import com.springboot.todoapp_backend.model.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProtobufCodecTest {
+
+    private static ToDo item(String id) {
+        return new ToDo(id, "Write the report", LocalDate.of(2024, 11, 30), true,
+                LocalDateTime.of(2024, 11, 2, 9, 15, 30, 123000000), ToDo.Priority.MEDIUM,
+                LocalDateTime.of(1969, 12, 31, 23, 0));
+    }
+
+    @Test
+    void testItemsRoundTripWithEveryKindOfId() {
+        for (String id : List.of("0b6c8f3e-4a1d-4c5e-9f2a-7d3b1e6a8c40", "73469820395487232", "42", "legacy-7",
+                "0B6C8F3E-4A1D-4C5E-9F2A-7D3B1E6A8C40", "007", "99999999999999999999")) {
+            ToDo item = item(id);
+            assertEquals(item, ProtobufCodec.decodeToDo(ProtobufCodec.encode(item)), id);
+        }
+
+        ToDo bare = new ToDo("1", null, null, false, null, null, LocalDateTime.of(2024, 1, 1, 0, 0));
+        assertEquals(bare, ProtobufCodec.decodeToDo(ProtobufCodec.encode(bare)));
+    }
+
+    @Test
+    void testOutputIsReadByTheReferenceParser() throws Exception {
+        ApiResponse<List<ToDo>> response = ApiResponse.successWithTotalItems("List retrieved successfully",
+                List.of(item("0b6c8f3e-4a1d-4c5e-9f2a-7d3b1e6a8c40"), item("12")), 2, "next");
+
+        UnknownFieldSet fields = UnknownFieldSet.parseFrom(ProtobufCodec.encode(response));
+
+        assertEquals(List.of(200L), fields.getField(1).getVarintList());
+        assertEquals(List.of(2L), fields.getField(3).getVarintList());
+        assertEquals("next", fields.getField(4).getLengthDelimitedList().get(0).toString(StandardCharsets.UTF_8));
+        UnknownFieldSet list = UnknownFieldSet.parseFrom(fields.getField(6).getLengthDelimitedList().get(0));
+        List<ByteString> items = list.getField(1).getLengthDelimitedList();
+        assertEquals(2, items.size());
+        UnknownFieldSet first = UnknownFieldSet.parseFrom(items.get(0));
+        assertEquals(16, first.getField(1).getLengthDelimitedList().get(0).size());
+        assertEquals(List.of(2L), first.getField(8).getVarintList());
+        UnknownFieldSet second = UnknownFieldSet.parseFrom(items.get(1));
+        assertEquals(List.of(12L), second.getField(2).getVarintList());
+    }
+
+    @Test
+    void testSmallerThanJson() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        ApiResponse<List<ToDo>> response = ApiResponse.successWithTotalItems("List retrieved successfully",
+                List.of(item("0b6c8f3e-4a1d-4c5e-9f2a-7d3b1e6a8c40"), item("73469820395487232")), 2, null);
+
+        assertTrue(ProtobufCodec.encode(response).length * 2 < objectMapper.writeValueAsBytes(response).length);
+    }
+
+    @Test
+    void testNegotiation() {
+        assertEquals(WireFormat.JSON, WireFormat.negotiate(null));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("*/*"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("not a media type"));
+        assertEquals(WireFormat.CBOR, WireFormat.negotiate("application/cbor"));
+        assertEquals(WireFormat.SMILE, WireFormat.negotiate("application/json;q=0.5, application/x-jackson-smile"));
+        assertEquals(WireFormat.JSON, WireFormat.negotiate("application/x-protobuf;q=0, application/*"));
+    }
+
+    @Test
+    void testPagesAreSmallerThanTheirJson() throws Exception {
+        ObjectMapper json = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        List<ToDo> items = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            items.add(item(UUID.nameUUIDFromBytes(new byte[]{(byte) i}).toString()));
+        }
+        ApiResponse<List<ToDo>> page = ApiResponse.successWithTotalItems("List retrieved successfully", items, 100, null);
+
+        int protobuf = ProtobufCodec.encode(page).length;
+        assertTrue(protobuf < json.writeValueAsBytes(page).length / 2, protobuf + " bytes");
+        assertTrue(protobuf < WireFormat.CBOR.mapper(json).writeValueAsBytes(page).length);
+        assertTrue(protobuf < WireFormat.SMILE.mapper(json).writeValueAsBytes(page).length);
+    }
+}
@@ -0,0 +1,222 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//The WebFlux controller on a free port, with the same cases as ToDoControllerTest where they apply
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.main.web-application-type=reactive",
+        "todoapp.store.shards=2",
+        "todoapp.feed.coalesce-ms=20"
+})
+public class ReactiveToDoControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    //The id of the new item
+    private String addItem(String text) {
+        JsonNode response = client.post().uri("/todos")
+                .bodyValue(new NewToDoDTO(text, ToDo.Priority.HIGH, null))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(JsonNode.class)
+                .returnResult().getResponseBody();
+        assertNotNull(response);
+        return response.get("data").get("id").asText();
+    }
+
+    @Test
+    void testGetItem_Success() {
+        String text = "Reactive get " + UUID.randomUUID();
+        String id = addItem(text);
+
+        String etag = client.get().uri("/todos/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody()
+                .jsonPath("$.text").isEqualTo(text)
+                .returnResult().getResponseHeaders().getETag();
+
+        client.get().uri("/todos/{id}", id)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testGetItem_CborWhenAccepted() {
+        String id = addItem("Reactive cbor " + UUID.randomUUID());
+
+        client.get().uri("/todos/{id}", id)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR);
+
+        client.get().uri("/todos/{id}", id)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void testGetItem_NotFound() {
+        client.get().uri("/todos/{id}", "missing")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testGetFilteredList_NotModifiedUntilAWrite() {
+        String text = "Reactive list " + UUID.randomUUID();
+        addItem(text);
+
+        String etag = client.get().uri(uri -> uri.path("/todos").queryParam("text", text).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalItems").isEqualTo(1)
+                .jsonPath("$.data[0].text").isEqualTo(text)
+                .returnResult().getResponseHeaders().getETag();
+        assertNotNull(etag);
+
+        client.get().uri(uri -> uri.path("/todos").queryParam("text", text).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        addItem(text);
+
+        client.get().uri(uri -> uri.path("/todos").queryParam("text", text).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalItems").isEqualTo(2);
+    }
+
+    @Test
+    void testAddItems_MultiStatusWhenSomeAreInvalid() {
+        List<NewToDoDTO> requests = List.of(
+                new NewToDoDTO("Reactive batch " + UUID.randomUUID(), ToDo.Priority.LOW, null),
+                new NewToDoDTO("", ToDo.Priority.LOW, null));
+
+        client.post().uri("/todos/batch")
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.MULTI_STATUS)
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("1 of 2 items applied")
+                .jsonPath("$.data[0].status").isEqualTo("CREATED")
+                .jsonPath("$.data[1].status").isEqualTo("INVALID");
+    }
+
+    @Test
+    void testAddItems_OkWhenAllAreApplied() {
+        List<NewToDoDTO> requests = List.of(
+                new NewToDoDTO("Reactive batch " + UUID.randomUUID(), ToDo.Priority.LOW, null),
+                new NewToDoDTO("Reactive batch " + UUID.randomUUID(), ToDo.Priority.MEDIUM, null));
+
+        client.post().uri("/todos/batch")
+                .bodyValue(requests)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("2 of 2 items applied");
+    }
+
+    @Test
+    void testDeleteItem_NotFound() {
+        client.delete().uri("/todos/{id}", "missing")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Item not found");
+    }
+
+    @Test
+    void testMarkAsDone_NotFound() {
+        client.post().uri("/todos/{id}/done", "missing")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Item not found");
+    }
+
+    @Test
+    void testExportItems_NdjsonLines() {
+        String text = "Reactive export " + UUID.randomUUID();
+        String first = addItem(text);
+        String second = addItem(text);
+
+        List<ToDo> exported = client.get().uri(uri -> uri.path("/todos/export").queryParam("text", text).build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ToDo.class)
+                .getResponseBody()
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertNotNull(exported);
+        assertEquals(Set.of(first, second), exported.stream().map(ToDo::getId).collect(Collectors.toSet()));
+        assertEquals(2, exported.size());
+    }
+
+    @Test
+    void testChanges_StreamsWritesAsEvents() {
+        String text = "Reactive change " + UUID.randomUUID();
+        // The response headers only come with the first event, so the write happens once the stream is open
+        CompletableFuture<Void> write = CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            addItem(text);
+        });
+
+        Flux<ServerSentEvent<String>> events = client.get().uri("/todos/changes")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody();
+
+        ServerSentEvent<String> change = events
+                .filter(event -> "changes".equals(event.event()))
+                .filter(event -> Objects.requireNonNull(event.data()).contains(text))
+                .blockFirst(Duration.ofSeconds(10));
+
+        write.join();
+        assertNotNull(change);
+        assertNotNull(change.id());
+    }
+}
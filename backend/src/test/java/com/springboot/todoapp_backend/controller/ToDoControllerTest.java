@@ -1,15 +1,26 @@
 package com.springboot.todoapp_backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.ProtobufCodec;
+import com.springboot.todoapp_backend.Utilities.WireFormat;
 import com.springboot.todoapp_backend.dtos.NewToDoDTO;
 import com.springboot.todoapp_backend.model.ToDo;
 import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoPage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.*;
@@ -20,12 +31,22 @@ public class ToDoControllerTest {
     @Mock
     private ToDoService toDoService;
 
-    @InjectMocks
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     private ToDoController toDoController;
 
     @BeforeEach
     void setUp(){
         openMocks(this);
+        toDoController = new ToDoController(toDoService, new ToDoPageCache(objectMapper));
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/todos");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 
     @Test
@@ -36,7 +57,7 @@ public class ToDoControllerTest {
 
         when(toDoService.getItem("1")).thenReturn(Optional.of(mockToDo));
 
-        ResponseEntity<ToDo> response = toDoController.getItem("1");
+        ResponseEntity<ToDo> response = toDoController.getItem("1", request(null));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals("Test Task", Objects.requireNonNull(response.getBody()).getText());
@@ -46,12 +67,93 @@ public class ToDoControllerTest {
     void testGetItem_NotFound() {
         when(toDoService.getItem("1")).thenReturn(Optional.empty());
 
-        ResponseEntity<ToDo> response = toDoController.getItem("1");
+        ResponseEntity<ToDo> response = toDoController.getItem("1", request(null));
 
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
         assertNull(response.getBody());
     }
 
+    @Test
+    void testGetFilteredList_Success() throws Exception {
+        ToDo mockToDo = new ToDo();
+        mockToDo.setText("Test Task");
+
+        when(toDoService.getFilteredPage(null, null, false, 1, null, null))
+                .thenReturn(new ToDoPage(List.of(mockToDo), 11, "next"));
+
+        ResponseEntity<byte[]> response =
+                toDoController.getFilteredList(null, null, false, 1, null, null, null, null, null, request(null));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(11, body.get("totalItems").asInt());
+        assertEquals("next", body.get("nextCursor").asText());
+        verify(toDoService, never()).getTotalItems(any(), any(), any(), any());
+    }
+
+    @Test
+    void testGetFilteredList_ServesRepeatPollsFromVersion() {
+        ToDo mockToDo = new ToDo();
+        mockToDo.setText("Test Task");
+
+        when(toDoService.version()).thenReturn(7L);
+        when(toDoService.getFilteredPage(null, null, null, 0, null, null))
+                .thenReturn(new ToDoPage(List.of(mockToDo), 1, null));
+
+        ResponseEntity<byte[]> first = toDoController.getFilteredList(null, null, null, 0, null, null, null, null, null, request(null));
+        ResponseEntity<byte[]> second = toDoController.getFilteredList(null, null, null, 0, null, null, null, null, null, request(null));
+        String etag = first.getHeaders().getETag();
+        ServletWebRequest conditional = request(etag);
+        ResponseEntity<byte[]> notModified = toDoController.getFilteredList(null, null, null, 0, null, null, null, null, null, conditional);
+
+        assertNotNull(etag);
+        assertArrayEquals(first.getBody(), second.getBody());
+        verify(toDoService, times(1)).getFilteredPage(null, null, null, 0, null, null);
+        assertNull(notModified);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), conditional.getResponse().getStatus());
+
+        when(toDoService.version()).thenReturn(8L);
+        ResponseEntity<byte[]> changed = toDoController.getFilteredList(null, null, null, 0, null, null, null, null, null, request(etag));
+
+        assertEquals(HttpStatus.OK, changed.getStatusCode());
+        assertNotEquals(etag, changed.getHeaders().getETag());
+    }
+
+    @Test
+    void testGetFilteredList_EncodesPerAcceptHeader() {
+        ToDo mockToDo = new ToDo();
+        mockToDo.setText("Test Task");
+
+        when(toDoService.version()).thenReturn(4L);
+        when(toDoService.getFilteredPage(null, null, null, 0, null, null))
+                .thenReturn(new ToDoPage(List.of(mockToDo), 1, null));
+
+        ResponseEntity<byte[]> json = toDoController.getFilteredList(null, null, null, 0, null, null, null, null, null, request(null));
+        ResponseEntity<byte[]> protobuf = toDoController.getFilteredList(null, null, null, 0, null, null, null,
+                WireFormat.PROTOBUF_VALUE + ", application/json;q=0.5", null, request(null));
+
+        assertEquals(WireFormat.PROTOBUF.mediaType(), protobuf.getHeaders().getContentType());
+        assertEquals(HttpHeaders.ACCEPT, protobuf.getHeaders().getFirst(HttpHeaders.VARY));
+        assertNotEquals(json.getHeaders().getETag(), protobuf.getHeaders().getETag());
+        assertTrue(protobuf.getBody().length < json.getBody().length);
+        ApiResponse<Object> decoded = ProtobufCodec.decodeResponse(protobuf.getBody());
+        assertEquals("Test Task", ((ToDo) ((List<?>) decoded.getData()).get(0)).getText());
+        assertEquals(1, decoded.getTotalItems());
+    }
+
+    @Test
+    void testGetItem_NotModifiedWhileItemUnchanged() {
+        ToDo mockToDo = new ToDo();
+        when(toDoService.getItem("1")).thenReturn(Optional.of(mockToDo));
+        when(toDoService.itemVersion("1")).thenReturn(3L);
+
+        String etag = toDoController.getItem("1", request(null)).getHeaders().getETag();
+        ServletWebRequest conditional = request(etag);
+
+        assertNull(toDoController.getItem("1", conditional));
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), conditional.getResponse().getStatus());
+    }
+
     @Test
     void testAddItem_Success() {
         NewToDoDTO newToDo = new NewToDoDTO("New Task", ToDo.Priority.LOW, null);
@@ -0,0 +1,51 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.service.ToDoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+public class ToDoExportControllerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExportItems_WritesOneLinePerItem() throws Exception {
+        ToDoService toDoService = mock(ToDoService.class);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        List<ToDo> items = List.of(
+                ToDo.builder().text("First").priority(ToDo.Priority.HIGH).build(),
+                ToDo.builder().text("Second").priority(ToDo.Priority.LOW).build()
+        );
+        doAnswer(invocation -> {
+            items.forEach(invocation.<Consumer<ToDo>>getArgument(3));
+            return null;
+        }).when(toDoService).forEachItem(isNull(), isNull(), eq(false), any());
+
+        ResponseEntity<StreamingResponseBody> response =
+                new ToDoExportController(toDoService, objectMapper).exportItems(null, null, false);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Objects.requireNonNull(response.getBody()).writeTo(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+        assertEquals(items.get(0), objectMapper.readValue(lines[0], ToDo.class));
+        assertEquals(items.get(1), objectMapper.readValue(lines[1], ToDo.class));
+    }
+}
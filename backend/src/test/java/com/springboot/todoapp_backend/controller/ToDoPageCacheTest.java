@@ -0,0 +1,89 @@
+package com.springboot.todoapp_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboot.todoapp_backend.Utilities.ApiResponse;
+import com.springboot.todoapp_backend.Utilities.WireFormat;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToDoPageCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private final ToDoPageCache pageCache = new ToDoPageCache(objectMapper);
+
+    private static ToDoPageCache.PageKey key(int page, long version) {
+        return new ToDoPageCache.PageKey(null, null, null, page, null, null, null, WireFormat.JSON, version);
+    }
+
+    private static List<ToDo> items(int count) {
+        List<ToDo> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(ToDo.builder().text("Task " + i).priority(ToDo.Priority.LOW)
+                    .dueDate(LocalDate.of(2025, 1, 1).plusDays(i)).build());
+        }
+        return items;
+    }
+
+    private static ApiResponse<List<ToDo>> response(List<ToDo> items) {
+        return ApiResponse.successWithTotalItems("List retrieved successfully", items, items.size(), "next");
+    }
+
+    @Test
+    void testPagesFromFragmentsMatchJackson() throws Exception {
+        List<ToDo> items = items(3);
+
+        byte[] page = pageCache.page(key(0, 1), false, () -> response(items)).body();
+
+        assertArrayEquals(objectMapper.writeValueAsBytes(response(items)), page);
+        assertEquals(3, pageCache.fragmentCount());
+    }
+
+    @Test
+    void testChangedItemsAreEncodedAgain() throws Exception {
+        List<ToDo> items = items(2);
+        pageCache.page(key(0, 1), false, () -> response(items));
+
+        // Changed in place without a change event, as the object store layout does
+        items.get(0).setDone(true);
+        byte[] changed = pageCache.page(key(0, 2), false, () -> response(items)).body();
+        assertArrayEquals(objectMapper.writeValueAsBytes(response(items)), changed);
+
+        ToDoFragmentCache fragments = new ToDoFragmentCache(objectMapper);
+        fragments.items(items);
+        fragments.onChange(new ToDoChange(3, ToDoChange.Type.DELETED, items.get(1)));
+        assertEquals(1, fragments.size());
+    }
+
+    @Test
+    void testLargePagesAreGzippedOnce() throws Exception {
+        List<ToDo> items = items(50);
+
+        ToDoPageCache.CachedPage identity = pageCache.page(key(0, 1), false, () -> response(items));
+        ToDoPageCache.CachedPage gzipped = pageCache.page(key(0, 1), true, () -> fail("cached"));
+        ToDoPageCache.CachedPage small = pageCache.page(key(1, 1), true,
+                () -> response(items(1)));
+
+        assertFalse(identity.gzipped());
+        assertTrue(gzipped.gzipped());
+        assertTrue(gzipped.body().length < identity.body().length);
+        assertSame(gzipped, pageCache.page(key(0, 1), true, () -> fail("cached")));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.body()))) {
+            assertArrayEquals(identity.body(), in.readAllBytes());
+        }
+        assertFalse(small.gzipped());
+        assertNotEquals(ToDoPageCache.etag(1, WireFormat.JSON), ToDoPageCache.etag(1, WireFormat.JSON, true));
+    }
+}
@@ -0,0 +1,50 @@
+package com.springboot.todoapp_backend.metrics;
+
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.service.ToDoService;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToDoMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private ToDoService toDoService;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        ToDoStore toDoStore = new ToDoStore();
+        new ToDoStoreMetrics(toDoStore).bindTo(registry);
+        toDoService = new ToDoService(toDoStore, new NoOpToDoPersistence(),
+                Validation.buildDefaultValidatorFactory().getValidator(), new ToDoMetrics(registry));
+    }
+
+    @Test
+    void testRecordsServiceAndStoreMetrics() {
+        ToDo first = toDoService.addItem(new NewToDoDTO("Write report", ToDo.Priority.HIGH, null));
+        toDoService.addItem(new NewToDoDTO("Call bob", ToDo.Priority.LOW, null));
+        toDoService.addItem(new NewToDoDTO("Read report", ToDo.Priority.LOW, null));
+        toDoService.markAsDone(first.getId());
+        toDoService.markAsDone(first.getId());
+        toDoService.getFilteredList("report", null, null, 1, null, null);
+
+        assertEquals(3, registry.get("todo.service.calls").tag("method", "addItem").timer().count());
+        assertEquals(2, registry.get("todo.service.calls").tag("method", "markAsDone").timer().count());
+        assertEquals(3, registry.get("todo.store.changes").tag("type", "CREATED").counter().count());
+        // Marking an item that is already done changes nothing, so only one change is counted
+        assertEquals(1, registry.get("todo.store.changes").tag("type", "DONE").counter().count());
+
+        assertEquals(3, registry.get("todo.store.items").gauge().value());
+        assertEquals(2, registry.get("todo.store.items.priority").tag("priority", "LOW").gauge().value());
+        assertEquals(1, registry.get("todo.store.items.done").gauge().value());
+        assertEquals(2, registry.get("todo.list.matches").summary().max());
+        assertEquals(200.0 / 3, registry.get("todo.list.selectivity").summary().max(), 0.001);
+    }
+}
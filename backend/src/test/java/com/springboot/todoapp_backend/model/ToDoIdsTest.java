@@ -0,0 +1,59 @@
+package com.springboot.todoapp_backend.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToDoIdsTest {
+
+    @AfterEach
+    void restoreDefault() {
+        ToDoIds.use(ToDoIds.Strategy.RANDOM_UUID, 0);
+    }
+
+    @Test
+    void testUuidV7CarriesVersionVariantAndTime() {
+        long before = System.currentTimeMillis();
+        UUID id = UUID.fromString(ToDoIds.uuidV7());
+
+        assertEquals(7, id.version());
+        assertEquals(2, id.variant());
+        long millis = id.getMostSignificantBits() >>> 16;
+        assertTrue(millis >= before && millis <= System.currentTimeMillis());
+    }
+
+    @Test
+    void testSnowflakeIdsIncreaseAndStayUniqueAcrossThreads() {
+        ToDoIds.Snowflake snowflake = new ToDoIds.Snowflake(5);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 8).parallel().forEach(thread -> {
+            long previous = -1;
+            for (int i = 0; i < 20_000; i++) {
+                long id = snowflake.nextLong();
+                assertTrue(id > previous);
+                assertEquals(5, (id >>> 12) & 1023);
+                ids.add(id);
+                previous = id;
+            }
+        });
+
+        assertEquals(8 * 20_000, ids.size());
+    }
+
+    @Test
+    void testConfiguredStrategyIsUsedForNewItems() {
+        ToDoIds.use(ToDoIds.Strategy.SNOWFLAKE, 1);
+
+        String id = new ToDo().getId();
+
+        assertTrue(Long.parseLong(id) > 0);
+        assertThrows(IllegalArgumentException.class, () -> ToDoIds.use(ToDoIds.Strategy.SNOWFLAKE, 1024));
+    }
+}
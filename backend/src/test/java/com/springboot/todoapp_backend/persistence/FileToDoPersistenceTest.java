@@ -0,0 +1,117 @@
+package com.springboot.todoapp_backend.persistence;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileToDoPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    private ToDoStore reopen() {
+        ToDoStore store = new ToDoStore();
+        FileToDoPersistence persistence = new FileToDoPersistence(directory, true, 10, 100000);
+        persistence.open(store);
+        return store;
+    }
+
+    @Test
+    void testRecoversFromLogWithoutSnapshot() {
+        ToDoStore store = new ToDoStore();
+        FileToDoPersistence persistence = new FileToDoPersistence(directory, true, 10, 100000);
+        persistence.open(store);
+
+        ToDo first = store.save(ToDo.builder().text("First").priority(ToDo.Priority.HIGH)
+                .dueDate(LocalDate.now().plusDays(3)).build());
+        ToDo second = store.save(ToDo.builder().text("Second").priority(ToDo.Priority.LOW).build());
+        ToDo third = store.save(ToDo.builder().text("Third").priority(ToDo.Priority.MEDIUM).build());
+        store.update(first.getId(), todo -> {
+            todo.setDone(true);
+            todo.setDoneDate(LocalDateTime.now());
+        });
+        store.delete(second.getId());
+        persistence.flush();
+
+        // No close, so recovery has to come from the log alone, as after a crash
+        ToDoStore recovered = reopen();
+
+        List<ToDo> items = recovered.findAll();
+        assertEquals(2, items.size());
+        assertEquals(first, items.get(0));
+        assertEquals(third, items.get(1));
+        assertTrue(recovered.findById(second.getId()).isEmpty());
+        assertEquals(store.sequence(), recovered.sequence());
+    }
+
+    @Test
+    void testRecoversFromSnapshotAndLogTail() throws Exception {
+        ToDoStore store = new ToDoStore();
+        FileToDoPersistence persistence = new FileToDoPersistence(directory, false, 1, 100000);
+        persistence.open(store);
+        for (int i = 0; i < 500; i++) {
+            store.save(ToDo.builder().text("Task " + i).priority(ToDo.Priority.LOW).build());
+        }
+        persistence.snapshot();
+        ToDo late = store.save(ToDo.builder().text("After snapshot").priority(ToDo.Priority.HIGH).build());
+        persistence.close();
+
+        ToDoStore recovered = reopen();
+
+        assertEquals(501, recovered.size());
+        assertEquals(late, recovered.findById(late.getId()).orElseThrow());
+        assertEquals(store.findAll(), recovered.findAll());
+    }
+
+    @Test
+    void testFlushAsyncCompletesOnceChangesAreDurable() throws Exception {
+        ToDoStore store = new ToDoStore();
+        FileToDoPersistence persistence = new FileToDoPersistence(directory, true, 10, 100000);
+        persistence.open(store);
+        ToDo saved = store.save(ToDo.builder().text("Async task").priority(ToDo.Priority.MEDIUM).build());
+
+        persistence.flushAsync().get(5, TimeUnit.SECONDS);
+
+        assertEquals(saved, reopen().findById(saved.getId()).orElseThrow());
+        persistence.close();
+    }
+
+    @Test
+    void testSnapshotFileEndsWithItsLastItem() throws Exception {
+        ToDoStore store = new ToDoStore();
+        FileToDoPersistence persistence = new FileToDoPersistence(directory, true, 10, 100000);
+        persistence.open(store);
+        persistence.snapshot();
+        long emptySize = snapshotSize();
+
+        store.save(ToDo.builder().text("Only task").priority(ToDo.Priority.LOW).build());
+        persistence.snapshot();
+        long oneItemSize = snapshotSize();
+        persistence.close();
+
+        assertEquals(2 * Integer.BYTES + 2 * Long.BYTES, emptySize);
+        assertTrue(oneItemSize > emptySize && oneItemSize < 1024);
+        assertEquals(1, reopen().size());
+    }
+
+    private long snapshotSize() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            Path latest = files.filter(file -> file.getFileName().toString().matches("snapshot-\\d+\\.dat"))
+                    .max(Comparator.naturalOrder())
+                    .orElseThrow();
+            return Files.size(latest);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.springboot.todoapp_backend.service;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompletionStatsTrackerTest {
+
+    private ToDo doneItem(ToDo.Priority priority, long minutesTaken) {
+        LocalDateTime created = LocalDateTime.of(2030, 1, 1, 10, 0);
+        return ToDo.builder()
+                .priority(priority)
+                .creationDate(created)
+                .isDone(true)
+                .doneDate(created.plusMinutes(minutesTaken))
+                .build();
+    }
+
+    @Test
+    void testAverages_FollowAddAndRemove() {
+        CompletionStatsTracker tracker = new CompletionStatsTracker();
+        ToDo fast = doneItem(ToDo.Priority.HIGH, 10);
+        ToDo slow = doneItem(ToDo.Priority.HIGH, 30);
+        ToDo low = doneItem(ToDo.Priority.LOW, 60);
+
+        tracker.add(fast);
+        tracker.add(slow);
+        tracker.add(low);
+        tracker.add(ToDo.builder().priority(ToDo.Priority.MEDIUM).build());
+
+        assertEquals(20 * 60_000, tracker.averageMillis(ToDo.Priority.HIGH));
+        assertEquals(0, tracker.averageMillis(ToDo.Priority.MEDIUM));
+        assertEquals(100 * 60_000 / 3, tracker.averageMillis());
+
+        tracker.remove(slow);
+        slow.setPriority(ToDo.Priority.LOW);
+        tracker.add(slow);
+
+        assertEquals(10 * 60_000, tracker.averageMillis(ToDo.Priority.HIGH));
+        assertEquals(45 * 60_000, tracker.averageMillis(ToDo.Priority.LOW));
+
+        tracker.remove(fast);
+        assertEquals(0, tracker.averageMillis(ToDo.Priority.HIGH));
+    }
+
+    @Test
+    void testHistograms_ReportPercentilesPerWindow() {
+        CompletionStatsTracker tracker = new CompletionStatsTracker();
+        LocalDateTime now = LocalDateTime.now();
+        for (int minutes = 1; minutes <= 100; minutes++) {
+            tracker.add(ToDo.builder()
+                    .priority(ToDo.Priority.MEDIUM)
+                    .creationDate(now.minusMinutes(minutes))
+                    .isDone(true)
+                    .doneDate(now)
+                    .build());
+        }
+        ToDo old = doneItem(ToDo.Priority.MEDIUM, 5);
+        tracker.add(old);
+
+        long[] recent = tracker.recentCounts(ToDo.Priority.MEDIUM, CompletionStatsTracker.HOURLY_WINDOWS);
+        assertEquals(100, CompletionTimeHistogram.totalCount(recent));
+        assertEquals(50 * 60_000, CompletionTimeHistogram.valueAtQuantile(recent, 0.5), 50 * 60_000 / 64.0);
+        assertEquals(99 * 60_000, CompletionTimeHistogram.valueAtQuantile(recent, 0.99), 99 * 60_000 / 64.0);
+
+        long[] allTime = tracker.allTimeCounts(ToDo.Priority.MEDIUM);
+        assertEquals(101, CompletionTimeHistogram.totalCount(allTime));
+
+        tracker.remove(old);
+        assertEquals(100, CompletionTimeHistogram.totalCount(tracker.allTimeCounts(ToDo.Priority.MEDIUM)));
+        assertEquals(0, CompletionTimeHistogram.totalCount(tracker.allTimeCounts(ToDo.Priority.HIGH)));
+    }
+}
@@ -0,0 +1,68 @@
+package com.springboot.todoapp_backend.service;
+
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
+import com.springboot.todoapp_backend.metrics.ToDoMetrics;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.store.ToDoChange;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReplicationLogTest {
+
+    private ToDoService toDoService;
+
+    @BeforeEach
+    void setUp() {
+        toDoService = new ToDoService(new ToDoStore(), new NoOpToDoPersistence(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ToDoMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void testKeepsTheItemAsItWasAtEachChange() throws Exception {
+        ReplicationLog log = new ReplicationLog(toDoService, 10);
+
+        ToDo item = toDoService.addItem(new NewToDoDTO("Original", ToDo.Priority.LOW, null));
+        toDoService.updateItem(item.getId(), new UpdateToDoDTO("Edited", ToDo.Priority.HIGH, null));
+        toDoService.markAsDone(item.getId());
+
+        List<ToDoChange> changes = log.changesAfter(0, 10, 0);
+        assertEquals(3, changes.size());
+        assertEquals("Original", changes.get(0).item().getText());
+        assertEquals(ToDo.Priority.LOW, changes.get(0).item().getPriority());
+        assertFalse(changes.get(0).item().isDone());
+        assertEquals("Edited", changes.get(1).item().getText());
+        assertFalse(changes.get(1).item().isDone());
+        assertTrue(changes.get(2).item().isDone());
+        assertNotSame(item, changes.get(2).item());
+    }
+
+    @Test
+    void testStartsAfterTheChangesMadeBeforeIt() throws Exception {
+        ToDo item = toDoService.addItem(new NewToDoDTO("Before the log", ToDo.Priority.LOW, null));
+        toDoService.addItem(new NewToDoDTO("Also before", ToDo.Priority.LOW, null));
+        ReplicationLog log = new ReplicationLog(toDoService, 10);
+        assertEquals(2, log.sequence());
+
+        // A change counted in the version the log started from but delivered late is left to the snapshot
+        log.onChange(new ToDoChange(1, ToDoChange.Type.CREATED, item));
+        assertEquals(2, log.sequence());
+        assertEquals(List.of(), log.changesAfter(2, 10, 0));
+        assertNull(log.changesAfter(0, 10, 0));
+
+        toDoService.deleteItem(item.getId());
+        List<ToDoChange> changes = log.changesAfter(2, 10, 0);
+        assertEquals(1, changes.size());
+        assertEquals(3, changes.get(0).sequence());
+        assertEquals(ToDoChange.Type.DELETED, changes.get(0).type());
+    }
+}
@@ -0,0 +1,159 @@
+package com.springboot.todoapp_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.springboot.todoapp_backend.dtos.NewToDoDTO;
+import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
+import com.springboot.todoapp_backend.metrics.ToDoMetrics;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToDoChangeFeedTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private ToDoService toDoService;
+    private ToDoChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        toDoService = new ToDoService(new ToDoStore(), new NoOpToDoPersistence(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ToDoMetrics(new SimpleMeterRegistry()));
+        // Dispatched by the tests only, and sent on the dispatching thread
+        changeFeed = new ToDoChangeFeed(toDoService, objectMapper, 3_600_000, 3, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeed.close();
+    }
+
+    @Test
+    void testCoalescesBurstIntoOneDeltaPerItem() throws Exception {
+        List<ToDoChangeFeed.Event> events = new ArrayList<>();
+        changeFeed.subscribe(null, events::add);
+
+        ToDo first = toDoService.addItem(new NewToDoDTO("First", ToDo.Priority.LOW, null));
+        ToDo second = toDoService.addItem(new NewToDoDTO("Second", ToDo.Priority.LOW, null));
+        toDoService.updateItem(first.getId(), new UpdateToDoDTO("First, edited", ToDo.Priority.HIGH, null));
+        toDoService.deleteItem(second.getId());
+        changeFeed.dispatch();
+
+        assertEquals(1, events.size());
+        assertEquals(ToDoChangeFeed.EventType.CHANGES, events.get(0).type());
+        assertEquals(4, events.get(0).sequence());
+        JsonNode deltas = objectMapper.readTree(events.get(0).data());
+        assertEquals(2, deltas.size());
+        assertEquals("UPDATED", deltas.get(0).get("type").asText());
+        assertEquals("First, edited", deltas.get(0).get("item").get("text").asText());
+        assertEquals("DELETED", deltas.get(1).get("type").asText());
+        assertEquals(second.getId(), deltas.get(1).get("id").asText());
+        assertNull(deltas.get(1).get("item"));
+    }
+
+    @Test
+    void testResumesFromKeptHistoryOrAsksForReset() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            toDoService.addItem(new NewToDoDTO("Task " + i, ToDo.Priority.LOW, null));
+        }
+        changeFeed.dispatch();
+
+        List<ToDoChangeFeed.Event> resumed = new ArrayList<>();
+        changeFeed.subscribe(3L, resumed::add);
+        List<ToDoChangeFeed.Event> tooOld = new ArrayList<>();
+        changeFeed.subscribe(1L, tooOld::add);
+
+        assertEquals(5, resumed.get(0).sequence());
+        assertEquals(2, objectMapper.readTree(resumed.get(0).data()).size());
+        assertEquals(ToDoChangeFeed.EventType.RESET, tooOld.get(0).type());
+    }
+
+    @Test
+    void testBlockedSubscriberDoesNotHoldUpTheOthersAndIsDropped() throws Exception {
+        ToDoChangeFeed feed = new ToDoChangeFeed(toDoService, objectMapper, 3_600_000, 3, 2);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch dropped = new CountDownLatch(1);
+            feed.subscribe(null, event -> {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }, dropped::countDown);
+            BlockingQueue<ToDoChangeFeed.Event> received = new LinkedBlockingQueue<>();
+            feed.subscribe(null, received::add);
+
+            for (int i = 0; i <= ToDoChangeFeed.MAX_QUEUED_EVENTS + 1; i++) {
+                toDoService.addItem(new NewToDoDTO("Task " + i, ToDo.Priority.LOW, null));
+                feed.dispatch();
+                assertNotNull(received.poll(5, TimeUnit.SECONDS));
+            }
+
+            assertEquals(1, feed.subscriberCount());
+            assertEquals(1, dropped.getCount());
+            release.countDown();
+            assertTrue(dropped.await(5, TimeUnit.SECONDS));
+        } finally {
+            feed.close();
+        }
+    }
+
+    @Test
+    void testSendsTheItemAsItWasWhenItChanged() throws Exception {
+        List<ToDoChangeFeed.Event> events = new ArrayList<>();
+        changeFeed.subscribe(null, events::add);
+
+        ToDo item = toDoService.addItem(new NewToDoDTO("Original", ToDo.Priority.LOW, null));
+        changeFeed.dispatch();
+        toDoService.updateItem(item.getId(), new UpdateToDoDTO("Edited", ToDo.Priority.HIGH, null));
+
+        List<ToDoChangeFeed.Event> resumed = new ArrayList<>();
+        changeFeed.subscribe(0L, resumed::add);
+        assertEquals("Original", objectMapper.readTree(events.get(0).data()).get(0).get("item").get("text").asText());
+        assertEquals("Original", objectMapper.readTree(resumed.get(0).data()).get(0).get("item").get("text").asText());
+    }
+
+    @Test
+    void testSubscribersShareTheSenderThreads() throws Exception {
+        ToDoChangeFeed feed = new ToDoChangeFeed(toDoService, objectMapper, 3_600_000, 3, 2);
+        try {
+            int subscriberCount = 500;
+            Set<Thread> senders = ConcurrentHashMap.newKeySet();
+            CountDownLatch received = new CountDownLatch(subscriberCount);
+            for (int i = 0; i < subscriberCount; i++) {
+                feed.subscribe(null, event -> {
+                    senders.add(Thread.currentThread());
+                    received.countDown();
+                });
+            }
+
+            toDoService.addItem(new NewToDoDTO("Task", ToDo.Priority.LOW, null));
+            feed.dispatch();
+
+            assertTrue(received.await(5, TimeUnit.SECONDS));
+            assertTrue(senders.size() <= 2, senders.size() + " sender threads");
+        } finally {
+            feed.close();
+        }
+    }
+}
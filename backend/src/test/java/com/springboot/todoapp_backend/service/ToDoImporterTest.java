@@ -0,0 +1,96 @@
+package com.springboot.todoapp_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.todoapp_backend.dtos.ImportResultDTO;
+import com.springboot.todoapp_backend.metrics.ToDoMetrics;
+import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.store.ToDoFilter;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToDoImporterTest {
+
+    private ToDoStore toDoStore;
+    private ToDoImporter toDoImporter;
+
+    @BeforeEach
+    void setUp() {
+        toDoStore = new ToDoStore();
+        ToDoService toDoService = new ToDoService(toDoStore, new NoOpToDoPersistence(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ToDoMetrics(new SimpleMeterRegistry()));
+        toDoImporter = new ToDoImporter(toDoService, new ObjectMapper());
+    }
+
+    private ImportResultDTO importText(String text, ToDoImporter.Format format) throws Exception {
+        return toDoImporter.importItems(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format);
+    }
+
+    @Test
+    void testImportNdjson_ReportsLineErrors() throws Exception {
+        StringBuilder upload = new StringBuilder();
+        for (int i = 0; i < 2500; i++) {
+            upload.append("{\"text\":\"Task ").append(i).append("\",\"priority\":\"LOW\"}\n");
+        }
+        upload.append("{\"text\":\"Broken\",\"priority\":\"URGENT\"}\n");
+        upload.append("\n");
+        upload.append("{\"text\":\"\",\"priority\":\"HIGH\"}\n");
+        upload.append("not json\n");
+
+        ImportResultDTO result = importText(upload.toString(), ToDoImporter.Format.NDJSON);
+
+        assertEquals(2504, result.getLinesRead());
+        assertEquals(2500, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(List.of(2501L, 2503L, 2504L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("A description of the task is required", result.getErrors().get(1).getMessage());
+        assertEquals(2500, toDoStore.size());
+        assertEquals("Task 0", toDoStore.findAll().get(0).getText());
+    }
+
+    @Test
+    void testImportCsv_ParsesQuotedFields() throws Exception {
+        String upload = "text,priority,dueDate\n"
+                + "\"Buy milk, eggs\",high,\n"
+                + "\"Say \"\"hi\"\"\",LOW,2099-01-31\n"
+                + "No priority,,\n";
+
+        ImportResultDTO result = importText(upload, ToDoImporter.Format.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        List<ToDo> items = toDoStore.findMatching(ToDoFilter.ALL);
+        assertEquals("Buy milk, eggs", items.get(0).getText());
+        assertEquals(ToDo.Priority.HIGH, items.get(0).getPriority());
+        assertEquals("Say \"hi\"", items.get(1).getText());
+        assertEquals(2099, items.get(1).getDueDate().getYear());
+    }
+
+    @Test
+    void testImport_RejectsOverlongLines() throws Exception {
+        String overlong = "{\"text\":\"" + "x".repeat(ToDoImporter.MAX_LINE_CHARS) + "\",\"priority\":\"LOW\"}";
+        String upload = "{\"text\":\"Before\",\"priority\":\"LOW\"}\r\n"
+                + overlong + "\r\n"
+                + "{\"text\":\"After\",\"priority\":\"HIGH\"}\r\n"
+                + "x".repeat(10 * ToDoImporter.MAX_LINE_CHARS);
+
+        ImportResultDTO result = importText(upload, ToDoImporter.Format.NDJSON);
+
+        assertEquals(4, result.getLinesRead());
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2L, 4L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("The line is longer than"));
+        assertEquals(List.of("Before", "After"), toDoStore.findAll().stream().map(ToDo::getText).toList());
+    }
+}
@@ -1,11 +1,24 @@
 package com.springboot.todoapp_backend.service;
 
+import com.springboot.todoapp_backend.dtos.BatchItemResultDTO;
+import com.springboot.todoapp_backend.dtos.BatchUpdateToDoDTO;
+import com.springboot.todoapp_backend.dtos.DueDateCountDTO;
 import com.springboot.todoapp_backend.dtos.NewToDoDTO;
 import com.springboot.todoapp_backend.dtos.UpdateToDoDTO;
+import com.springboot.todoapp_backend.metrics.ToDoMetrics;
 import com.springboot.todoapp_backend.model.ToDo;
+import com.springboot.todoapp_backend.persistence.NoOpToDoPersistence;
+import com.springboot.todoapp_backend.store.ToDoStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -16,7 +29,9 @@ public class ToDoServiceTest {
 
     @BeforeEach
     void setUp() {
-        toDoService = new ToDoService();
+        toDoService = new ToDoService(new ToDoStore(), new NoOpToDoPersistence(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ToDoMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -61,4 +76,62 @@ public class ToDoServiceTest {
         assertEquals("Updated task", updatedToDo.get().getText());
         assertEquals(ToDo.Priority.HIGH, updatedToDo.get().getPriority());
     }
+
+    @Test
+    void testBatchWrites_ReportPerItemResults() {
+        List<BatchItemResultDTO> created = toDoService.addItems(Arrays.asList(
+                new NewToDoDTO("First", ToDo.Priority.HIGH, null),
+                new NewToDoDTO("", ToDo.Priority.LOW, null),
+                new NewToDoDTO("Third", ToDo.Priority.LOW, "not-a-date"),
+                new NewToDoDTO("Fourth", ToDo.Priority.MEDIUM, null)
+        ));
+
+        assertEquals(4, created.size());
+        assertEquals(BatchItemResultDTO.Status.CREATED, created.get(0).getStatus());
+        assertEquals(BatchItemResultDTO.Status.INVALID, created.get(1).getStatus());
+        assertEquals("A description of the task is required", created.get(1).getMessage());
+        assertEquals(BatchItemResultDTO.Status.INVALID, created.get(2).getStatus());
+        assertEquals(BatchItemResultDTO.Status.CREATED, created.get(3).getStatus());
+        String firstId = created.get(0).getId();
+        String fourthId = created.get(3).getId();
+        assertTrue(toDoService.getItem(firstId).isPresent());
+
+        List<BatchItemResultDTO> updated = toDoService.updateItems(List.of(
+                new BatchUpdateToDoDTO(firstId, "First updated", null, null),
+                new BatchUpdateToDoDTO("missing", "Nope", null, null)
+        ));
+
+        assertEquals(BatchItemResultDTO.Status.UPDATED, updated.get(0).getStatus());
+        assertEquals("First updated", toDoService.getItem(firstId).orElseThrow().getText());
+        assertEquals(BatchItemResultDTO.Status.NOT_FOUND, updated.get(1).getStatus());
+
+        List<BatchItemResultDTO> deleted = toDoService.deleteItems(List.of(fourthId, fourthId));
+
+        assertEquals(BatchItemResultDTO.Status.DELETED, deleted.get(0).getStatus());
+        assertEquals(BatchItemResultDTO.Status.NOT_FOUND, deleted.get(1).getStatus());
+        assertTrue(toDoService.getItem(fourthId).isEmpty());
+    }
+
+    @Test
+    void testBatchWrites_RejectEmptyBatch() {
+        assertThrows(IllegalArgumentException.class, () -> toDoService.addItems(List.of()));
+    }
+
+    @Test
+    void testDueDateQueries() {
+        LocalDate monday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        toDoService.addItem(new NewToDoDTO("Today", ToDo.Priority.LOW, LocalDate.now().toString()));
+        toDoService.addItem(new NewToDoDTO("Monday", ToDo.Priority.LOW, monday.toString()));
+        ToDo sunday = toDoService.addItem(new NewToDoDTO("Sunday", ToDo.Priority.LOW, monday.plusDays(6).toString()));
+        toDoService.markAsDone(sunday.getId());
+
+        assertEquals("Today", toDoService.getItemsDueToday(10).items().get(0).getText());
+        assertEquals(0, toDoService.getOverdueItems(10).totalItems());
+        assertEquals(2, toDoService.getItemsDueWithin(7, 10).totalItems());
+        assertEquals(List.of(new DueDateCountDTO(monday, 2, 1)),
+                toDoService.getDueDateCalendar(monday.toString(), monday.plusDays(6).toString(), "week"));
+        assertThrows(IllegalArgumentException.class,
+                () -> toDoService.getDueDateCalendar(monday.toString(), monday.minusDays(1).toString(), null));
+        assertThrows(IllegalArgumentException.class, () -> toDoService.getItemsDueWithin(-1, 10));
+    }
 }
@@ -0,0 +1,91 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Runs every store test against the columnar layout, plus the checks specific to it
+public class ColumnarToDoStoreTest extends ToDoStoreTest {
+
+    @Override
+    ToDoStore.Layout layout() {
+        return ToDoStore.Layout.COLUMNAR;
+    }
+
+    @Test
+    void testRecordsRoundTripEveryField() {
+        ColumnarRecords records = new ColumnarRecords();
+        ToDo item = ToDo.builder()
+                .text("Ünïcödé task ✓")
+                .priority(ToDo.Priority.MEDIUM)
+                .dueDate(LocalDate.of(2031, 2, 28))
+                .isDone(true)
+                .doneDate(LocalDateTime.of(2030, 1, 1, 12, 30, 15, 123456789))
+                .creationDate(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999999999))
+                .build();
+        ToDo bare = ToDo.builder().build();
+
+        int slot = records.add(item);
+        int bareSlot = records.add(bare);
+
+        assertEquals(item, records.get(slot));
+        assertEquals(bare, records.get(bareSlot));
+        assertEquals(slot, records.slotOf(item.getId()));
+        assertEquals(ToDoRecords.NO_SLOT, records.slotOf(item.getId().toUpperCase()));
+    }
+
+    @Test
+    void testIdTableSurvivesDeletesAndGrowth() {
+        ColumnarRecords records = new ColumnarRecords();
+        ToDo[] items = new ToDo[5000];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = ToDo.builder().text("Task " + i).priority(ToDo.Priority.LOW).build();
+            records.add(items[i]);
+        }
+        for (int i = 0; i < items.length; i += 2) {
+            records.remove(records.slotOf(items[i].getId()));
+        }
+
+        for (int i = 0; i < items.length; i++) {
+            int slot = records.slotOf(items[i].getId());
+            if (i % 2 == 0) {
+                assertEquals(ToDoRecords.NO_SLOT, slot);
+            } else {
+                assertEquals(items[i], records.get(slot));
+            }
+        }
+        ToDoRecords compacted = records.compacted();
+        assertEquals(items.length / 2, compacted.slots());
+        assertEquals(items[items.length - 1], compacted.get(compacted.slotOf(items[items.length - 1].getId())));
+    }
+
+    @Test
+    void testKeepsNumericIdsApartFromUuids() {
+        ColumnarRecords records = new ColumnarRecords();
+        ToDo numeric = ToDo.builder().id("42").text("Snowflake").build();
+        ToDo uuid = ToDo.builder().id("00000000-0000-0000-0000-00000000002a").text("UUID").build();
+
+        int numericSlot = records.add(numeric);
+        int uuidSlot = records.add(uuid);
+        records.set(numericSlot, ToDo.builder().id("42").text("Snowflake").isDone(true).build());
+
+        assertEquals(numericSlot, records.slotOf("42"));
+        assertEquals(uuidSlot, records.slotOf(uuid.getId()));
+        assertEquals("42", records.idOf(numericSlot));
+        assertTrue(records.get(numericSlot).isDone());
+        assertEquals(ToDoRecords.NO_SLOT, records.slotOf("042"));
+        assertEquals("42", records.compacted().idOf(0));
+    }
+
+    @Test
+    void testRejectsIdsItCannotEncode() {
+        ToDoStore store = new ToDoStore(ToDoStore.Layout.COLUMNAR);
+
+        assertThrows(IllegalArgumentException.class, () -> store.save(ToDo.builder().id("not-a-uuid").build()));
+        assertThrows(IllegalArgumentException.class, () -> store.save(ToDo.builder().id("9223372036854775808").build()));
+    }
+}
@@ -0,0 +1,77 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Runs every store test against a store split into several shards, plus the checks of the merged results
+public class ShardedToDoStoreTest extends ToDoStoreTest {
+
+    @Override
+    int shards() {
+        return 4;
+    }
+
+    @Test
+    void testMergedPagesMatchASingleShard() {
+        ToDoStore single = new ToDoStore();
+        ToDoStore sharded = new ToDoStore(ToDoStore.Layout.OBJECTS, 4);
+        Random random = new Random(7);
+        // Enough items for the shards to be scanned in parallel
+        for (int i = 0; i < 10_000; i++) {
+            ToDo item = ToDo.builder()
+                    .text("Task " + i)
+                    .priority(ToDo.Priority.values()[random.nextInt(3)])
+                    .dueDate(random.nextBoolean() ? LocalDate.of(2030, 1, 1).plusDays(random.nextInt(30)) : null)
+                    .isDone(random.nextInt(4) == 0)
+                    .build();
+            single.save(item);
+            sharded.save(item);
+        }
+
+        List<ToDoSort> sorts = List.of(ToDoSort.DEFAULT, ToDoSort.of("dueDate", "asc"), ToDoSort.of("priority,dueDate", null));
+        List<ToDoFilter> filters = List.of(ToDoFilter.ALL, new ToDoFilter(null, null, false),
+                new ToDoFilter("Task 12", null, null));
+        for (ToDoSort sort : sorts) {
+            for (ToDoFilter filter : filters) {
+                assertEquals(single.findPage(filter, sort, 250, 50), sharded.findPage(filter, sort, 250, 50));
+
+                List<ToDo> walked = new ArrayList<>();
+                ToDoPage page = sharded.findPage(filter, sort, 0, 700);
+                walked.addAll(page.items());
+                while (page.nextCursor() != null) {
+                    page = sharded.findPageAfter(filter, sort, page.nextCursor(), 700);
+                    walked.addAll(page.items());
+                }
+                assertEquals(single.findPage(filter, sort, 0, 10_000).items(), walked);
+            }
+        }
+        assertEquals(single.findAll(), sharded.findAll());
+        assertEquals(single.count(new ToDoFilter(null, ToDo.Priority.HIGH, true)),
+                sharded.count(new ToDoFilter(null, ToDo.Priority.HIGH, true)));
+        assertEquals(single.dueDateCounts(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31)),
+                sharded.dueDateCounts(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31)));
+    }
+
+    @Test
+    void testCursorSurvivesCompaction() {
+        List<ToDo> items = new ArrayList<>();
+        for (int i = 0; i < 12_000; i++) {
+            items.add(toDoStore.save(ToDo.builder().text("Task " + i).priority(ToDo.Priority.LOW).build()));
+        }
+        ToDoPage first = toDoStore.findPage(ToDoFilter.ALL, ToDoSort.DEFAULT, 0, 10);
+        for (int i = 10; i < 10_000; i++) {
+            toDoStore.delete(items.get(i).getId());
+        }
+        assertTrue(toDoStore.stats().generation() > 0);
+
+        ToDoPage next = toDoStore.findPageAfter(ToDoFilter.ALL, ToDoSort.DEFAULT, first.nextCursor(), 10);
+        assertEquals(items.subList(10_000, 10_010), next.items());
+    }
+}
@@ -0,0 +1,310 @@
+package com.springboot.todoapp_backend.store;
+
+import com.springboot.todoapp_backend.model.ToDo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToDoStoreTest {
+
+    ToDoStore toDoStore;
+
+    @BeforeEach
+    void setUp() {
+        toDoStore = new ToDoStore(layout(), shards());
+    }
+
+    ToDoStore.Layout layout() {
+        return ToDoStore.Layout.OBJECTS;
+    }
+
+    int shards() {
+        return 1;
+    }
+
+    private ToDo newItem(String text) {
+        return ToDo.builder().text(text).priority(ToDo.Priority.LOW).build();
+    }
+
+    @Test
+    void testFindById_Success() {
+        ToDo item = toDoStore.save(newItem("Test task"));
+
+        assertTrue(toDoStore.findById(item.getId()).isPresent());
+        assertTrue(toDoStore.findById("non-existing-id").isEmpty());
+    }
+
+    @Test
+    void testDelete_KeepsInsertionOrderAfterCompaction() {
+        List<ToDo> items = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            items.add(toDoStore.save(newItem("Task " + i)));
+        }
+        for (int i = 0; i < 3000; i += 3) {
+            toDoStore.delete(items.get(i).getId());
+            toDoStore.delete(items.get(i + 1).getId());
+        }
+
+        List<ToDo> remaining = toDoStore.findAll();
+        assertEquals(1000, remaining.size());
+        assertEquals(1000, toDoStore.size());
+        for (int i = 0; i < remaining.size(); i++) {
+            assertEquals(items.get(i * 3 + 2), remaining.get(i));
+        }
+        assertTrue(toDoStore.delete(items.get(2).getId()).isPresent());
+        assertTrue(toDoStore.findById(items.get(2).getId()).isEmpty());
+    }
+
+    @Test
+    void testFindMatching_UsesUpdatedIndexes() {
+        ToDo high = toDoStore.save(ToDo.builder().text("Write report").priority(ToDo.Priority.HIGH).build());
+        ToDo low = toDoStore.save(newItem("Read report"));
+        toDoStore.save(newItem("Call bob"));
+
+        // Columnar stores hand out copies, so the updated item is the one update returns
+        low = toDoStore.update(low.getId(), todo -> {
+            todo.setPriority(ToDo.Priority.HIGH);
+            todo.setDone(true);
+        }).orElseThrow();
+
+        assertEquals(List.of(high, low), toDoStore.findMatching(new ToDoFilter(null, ToDo.Priority.HIGH, null)));
+        assertEquals(List.of(low), toDoStore.findMatching(new ToDoFilter(null, ToDo.Priority.HIGH, true)));
+        assertEquals(List.of(high), toDoStore.findMatching(new ToDoFilter("REPORT", null, false)));
+        assertTrue(toDoStore.findMatching(new ToDoFilter(null, ToDo.Priority.LOW, true)).isEmpty());
+
+        toDoStore.delete(high.getId());
+        assertEquals(List.of(low), toDoStore.findMatching(new ToDoFilter(null, ToDo.Priority.HIGH, null)));
+    }
+
+    @Test
+    void testFindPage_MatchesFullSort() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            toDoStore.save(ToDo.builder()
+                    .text("Task " + i)
+                    .priority(ToDo.Priority.values()[random.nextInt(3)])
+                    .dueDate(random.nextInt(4) == 0 ? null : LocalDate.of(2030, 1, 1).plusDays(random.nextInt(20)))
+                    .isDone(random.nextBoolean())
+                    .build());
+        }
+
+        for (ToDoFilter filter : List.of(ToDoFilter.ALL, new ToDoFilter("1", null, true),
+                new ToDoFilter(null, ToDo.Priority.MEDIUM, null), new ToDoFilter("TASK 42", null, null),
+                new ToDoFilter("sk 3", ToDo.Priority.HIGH, false), new ToDoFilter("missing", null, null))) {
+            for (ToDoSort sort : List.of(ToDoSort.of(null, null), ToDoSort.of("priority", "asc"),
+                    ToDoSort.of("dueDate", "desc"), ToDoSort.of("dueDate", "asc"))) {
+                Comparator<ToDo> comparator = sort.field() == ToDoSort.Field.DUE_DATE
+                        ? Comparator.comparing(ToDo::getDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+                        : Comparator.comparing(ToDo::getPriority);
+                List<ToDo> expected = toDoStore.findAll().stream()
+                        .filter(filter::matches)
+                        .sorted(sort.reversed() ? comparator.reversed() : comparator)
+                        .toList();
+
+                ToDoPage deepPage = toDoStore.findPage(filter, sort, 40, 10);
+                assertEquals(expected.subList(Math.min(40, expected.size()), Math.min(50, expected.size())), deepPage.items());
+                assertEquals(expected.size(), deepPage.totalItems());
+                assertEquals(expected.size(), toDoStore.count(filter));
+
+                List<ToDo> walked = new ArrayList<>();
+                ToDoPage page = toDoStore.findPage(filter, sort, 0, 10);
+                walked.addAll(page.items());
+                while (page.nextCursor() != null) {
+                    page = toDoStore.findPageAfter(filter, sort, page.nextCursor(), 10);
+                    walked.addAll(page.items());
+                }
+                assertEquals(expected, walked);
+            }
+        }
+    }
+
+    @Test
+    void testFindPage_SortsOnSeveralKeys() {
+        Random random = new Random(7);
+        LocalDateTime created = LocalDateTime.of(2029, 6, 1, 8, 0);
+        for (int i = 0; i < 2000; i++) {
+            toDoStore.save(ToDo.builder()
+                    .text("Task " + i)
+                    .priority(ToDo.Priority.values()[random.nextInt(3)])
+                    .dueDate(random.nextInt(4) == 0 ? null : LocalDate.of(2030, 1, 1).plusDays(random.nextInt(20)))
+                    .isDone(random.nextBoolean())
+                    .creationDate(created.plusSeconds(random.nextInt(5000)))
+                    .build());
+        }
+        // Updated after the saves, the sort keys have to follow the changed items
+        for (ToDo item : toDoStore.findAll().subList(0, 500)) {
+            toDoStore.update(item.getId(), todo -> {
+                todo.setPriority(ToDo.Priority.values()[random.nextInt(3)]);
+                todo.setDueDate(random.nextInt(4) == 0 ? null : LocalDate.of(2030, 1, 1).plusDays(random.nextInt(20)));
+            });
+        }
+        Map<ToDoSort.Field, Comparator<ToDo>> natural = Map.of(
+                ToDoSort.Field.PRIORITY, Comparator.comparing(ToDo::getPriority),
+                ToDoSort.Field.DUE_DATE,
+                Comparator.comparing(ToDo::getDueDate, Comparator.nullsLast(Comparator.naturalOrder())),
+                ToDoSort.Field.CREATION_DATE, Comparator.comparing(ToDo::getCreationDate));
+
+        for (ToDoFilter filter : List.of(ToDoFilter.ALL, new ToDoFilter("1", null, true),
+                new ToDoFilter(null, ToDo.Priority.MEDIUM, null), new ToDoFilter(null, null, false))) {
+            for (String sortBy : List.of("priority,dueDate", "dueDate:asc,priority:desc", "creationDate",
+                    "priority:asc,creationDate:asc", "dueDate,creationDate,priority")) {
+                ToDoSort sort = ToDoSort.of(sortBy, "desc");
+                Comparator<ToDo> comparator = null;
+                for (ToDoSort.Key key : sort.keys()) {
+                    Comparator<ToDo> next = natural.get(key.field());
+                    next = key.reversed() ? next.reversed() : next;
+                    comparator = comparator == null ? next : comparator.thenComparing(next);
+                }
+                List<ToDo> expected = toDoStore.findAll().stream().filter(filter::matches).sorted(comparator).toList();
+
+                ToDoPage deepPage = toDoStore.findPage(filter, sort, 40, 10);
+                assertEquals(expected.subList(Math.min(40, expected.size()), Math.min(50, expected.size())), deepPage.items());
+                assertEquals(expected.size(), deepPage.totalItems());
+
+                List<ToDo> walked = new ArrayList<>();
+                ToDoPage page = toDoStore.findPage(filter, sort, 0, 25);
+                walked.addAll(page.items());
+                while (page.nextCursor() != null) {
+                    page = toDoStore.findPageAfter(filter, sort, page.nextCursor(), 25);
+                    walked.addAll(page.items());
+                }
+                assertEquals(expected, walked);
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> ToDoSort.of("priority,priority", null));
+        assertThrows(IllegalArgumentException.class, () -> ToDoSort.of("dueDate:up", null));
+        assertThrows(IllegalArgumentException.class, () -> ToDoSort.of("text", null));
+    }
+
+    @Test
+    void testForEachMatching_ResumesAfterCompaction() {
+        List<ToDo> items = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            items.add(toDoStore.save(newItem("Task " + i)));
+        }
+
+        List<ToDo> visited = new ArrayList<>();
+        toDoStore.forEachMatching(ToDoFilter.ALL, item -> {
+            visited.add(item);
+            if (visited.size() == 1) {
+                // Deleting two thirds of the items from inside the visit triggers a compaction
+                for (int i = 1000; i < 3000; i++) {
+                    if (i % 3 != 0) {
+                        toDoStore.delete(items.get(i).getId());
+                    }
+                }
+            }
+        });
+
+        List<ToDo> expected = new ArrayList<>(items.subList(0, 512));
+        for (int i = 512; i < 3000; i++) {
+            if (i < 1000 || i % 3 == 0) {
+                expected.add(items.get(i));
+            }
+        }
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    void testMatchingChunks_ResumeWhenTheLastVisitedItemIsDeleted() {
+        List<ToDo> items = new ArrayList<>();
+        for (int i = 0; i < 12000; i++) {
+            items.add(toDoStore.save(newItem("Task " + i)));
+        }
+
+        Iterator<List<ToDo>> chunks = toDoStore.matchingChunks(ToDoFilter.ALL);
+        List<ToDo> visited = new ArrayList<>(chunks.next());
+        // Takes the last visited item of every shard with it and leaves enough holes for a compaction
+        for (int i = 1; i < 10000; i++) {
+            toDoStore.delete(items.get(i).getId());
+        }
+        assertTrue(toDoStore.stats().generation() > 0);
+        chunks.forEachRemaining(visited::addAll);
+
+        assertEquals(items.subList(0, ToDoShard.VISIT_CHUNK), visited.subList(0, ToDoShard.VISIT_CHUNK));
+        assertEquals(items.subList(10000, 12000), visited.subList(visited.size() - 2000, visited.size()));
+        Map<String, Integer> order = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            order.put(items.get(i).getId(), i);
+        }
+        for (int i = 1; i < visited.size(); i++) {
+            assertTrue(order.get(visited.get(i - 1).getId()) < order.get(visited.get(i).getId()));
+        }
+    }
+
+    @Test
+    void testCount_InvalidatedByMutations() {
+        ToDo item = toDoStore.save(newItem("Buy milk"));
+        ToDoFilter filter = new ToDoFilter("milk", null, false);
+        assertEquals(1, toDoStore.findPage(filter, ToDoSort.DEFAULT, 0, 10).totalItems());
+
+        toDoStore.update(item.getId(), todo -> todo.setDone(true));
+        assertEquals(0, toDoStore.count(filter));
+
+        toDoStore.save(newItem("Oat milk"));
+        assertEquals(1, toDoStore.findPage(filter, ToDoSort.DEFAULT, 0, 10).totalItems());
+    }
+
+    @Test
+    void testFindPageAfter_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> toDoStore.findPageAfter(ToDoFilter.ALL, ToDoSort.DEFAULT, "not-a-cursor", 10));
+    }
+
+    @Test
+    void testConcurrentWrites() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ToDo item = toDoStore.save(newItem("Task"));
+                    if (i % 2 == 0) {
+                        toDoStore.delete(item.getId());
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(4000, toDoStore.size());
+        assertEquals(4000, toDoStore.findAll().size());
+    }
+
+    @Test
+    void testDueDateQueriesFollowUpdatesAndDeletes() {
+        LocalDate day = LocalDate.of(2030, 3, 4);
+        ToDo first = toDoStore.save(ToDo.builder().text("First").dueDate(day).build());
+        ToDo second = toDoStore.save(ToDo.builder().text("Second").dueDate(day).build());
+        ToDo later = toDoStore.save(ToDo.builder().text("Later").dueDate(day.plusDays(3)).build());
+        toDoStore.save(ToDo.builder().text("Undated").build());
+
+        toDoStore.update(second.getId(), todo -> todo.setDone(true));
+        toDoStore.update(later.getId(), todo -> todo.setDueDate(day.plusDays(1)));
+
+        ToDoPage dueSoon = toDoStore.findUndoneDue(day, day.plusDays(2), 10);
+        assertEquals(2, dueSoon.totalItems());
+        assertEquals(List.of(first.getId(), later.getId()), dueSoon.items().stream().map(ToDo::getId).toList());
+        assertEquals(1, toDoStore.findUndoneDue(null, day, 1).items().size());
+        assertEquals(List.of(new DueDateCount(day, 2, 1), new DueDateCount(day.plusDays(1), 1, 1)),
+                toDoStore.dueDateCounts(day.minusDays(7), day.plusDays(7)));
+
+        toDoStore.delete(first.getId());
+        assertEquals(List.of(later.getId()),
+                toDoStore.findUndoneDue(null, day.plusDays(1), 10).items().stream().map(ToDo::getId).toList());
+    }
+}